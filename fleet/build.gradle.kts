@@ -0,0 +1,38 @@
+plugins {
+    java
+    application
+}
+
+version = rootProject.version
+
+java {
+    toolchain {
+        languageVersion.set(JavaLanguageVersion.of(21))
+    }
+}
+
+repositories {
+    mavenCentral()
+}
+
+dependencies {
+    // Report format and LogFmt only; the plugin's Paper API is compileOnly, so no Bukkit at runtime
+    implementation(project(":"))
+}
+
+application {
+    mainClass.set("com.splatage.ghostbuster.fleet.FleetMerge")
+    applicationName = "ghostbuster-fleet"
+}
+
+tasks.named<Jar>("jar") {
+    archiveBaseName.set("ghostbuster-fleet")
+    manifest {
+        attributes("Main-Class" to application.mainClass.get())
+    }
+    // Self-contained: java -jar ghostbuster-fleet.jar reports/
+    dependsOn(configurations.runtimeClasspath)
+    from(configurations.runtimeClasspath.map { cp -> cp.map { if (it.isDirectory) it else zipTree(it) } }) {
+        include("com/splatage/ghostbuster/report/**", "com/splatage/ghostbuster/util/LogFmt*")
+    }
+}
@@ -0,0 +1,181 @@
+package com.splatage.ghostbuster.fleet;
+
+import com.splatage.ghostbuster.report.FleetReport;
+import com.splatage.ghostbuster.report.ReportReader;
+import com.splatage.ghostbuster.util.LogFmt;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Merges fleet reports from many servers and ranks ghost owners across the fleet.
+ * Reports are streamed one owner at a time into a bounded {@link OwnerTable}; memory
+ * grows with the number of distinct servers and owners, never with the number of
+ * reports, so months of hourly reports merge on one core. Needs no server classes:
+ *
+ * <pre>
+ * java -jar ghostbuster-fleet.jar [--by=ghosts|bytes|servers|sightings] [--top=20]
+ *     [--since=2025-01-01] [--until=2025-03-31] [--capacity=4096] reports/ ...
+ * </pre>
+ *
+ * Directories are searched recursively for {@code *.gbr}; unreadable reports are
+ * counted and skipped.
+ */
+public final class FleetMerge {
+  private static final DateTimeFormatter DAY = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm").withZone(ZoneId.systemDefault());
+  private static final int TYPES_SHOWN = 4;
+
+  // Per server totals; one per distinct server name
+  private static final class ServerStats {
+    long reports, scans, scanNanos, maxScanNanos, stable, unlinks;
+    int maxTracked;
+    long lastMillis;
+    String pluginVersion = "?";
+  }
+
+  private final long since, until;
+  private final OwnerTable owners;
+  private final Map<String, Integer> serverIds = new HashMap<>();
+  private final Map<String, ServerStats> servers = new TreeMap<>();
+  private long reports, skipped, outOfRange;
+  private long firstMillis = Long.MAX_VALUE, lastMillis;
+
+  private FleetMerge(long since, long until, int capacity) {
+    this.since = since;
+    this.until = until;
+    this.owners = new OwnerTable(capacity);
+  }
+
+  public static void main(String[] args) throws IOException {
+    String by = "ghosts";
+    int top = 20, capacity = 4096;
+    long since = Long.MIN_VALUE, until = Long.MAX_VALUE;
+    List<Path> inputs = new ArrayList<>();
+    for (String a : args) {
+      if (a.startsWith("--by=")) by = a.substring("--by=".length());
+      else if (a.startsWith("--top=")) top = Integer.parseInt(a.substring("--top=".length()));
+      else if (a.startsWith("--capacity=")) capacity = Integer.parseInt(a.substring("--capacity=".length()));
+      else if (a.startsWith("--since=")) since = dayStart(a.substring("--since=".length()));
+      else if (a.startsWith("--until=")) until = dayStart(a.substring("--until=".length())) + 86_400_000L;
+      else inputs.add(Path.of(a));
+    }
+    Comparator<OwnerTable.Entry> order = order(by);
+    if (inputs.isEmpty() || order == null) {
+      System.err.println("usage: FleetMerge [--by=ghosts|bytes|servers|sightings] [--top=N] [--since=YYYY-MM-DD]"
+          + " [--until=YYYY-MM-DD] [--capacity=N] <dir|report>...");
+      System.exit(2);
+    }
+
+    FleetMerge merge = new FleetMerge(since, until, capacity);
+    long t0 = System.nanoTime();
+    for (Path in : inputs) {
+      if (Files.isDirectory(in)) {
+        try (Stream<Path> files = Files.walk(in)) {
+          files.filter(p -> Files.isRegularFile(p) && ReportReader.isReport(p)).forEach(merge::add);
+        }
+      } else {
+        merge.add(in);
+      }
+    }
+    merge.print(order, Math.max(1, top), System.nanoTime() - t0);
+  }
+
+  private static long dayStart(String day) {
+    return LocalDate.parse(day).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+  }
+
+  private static Comparator<OwnerTable.Entry> order(String by) {
+    Comparator<OwnerTable.Entry> ghosts = Comparator.comparingLong(e -> e.ghosts);
+    Comparator<OwnerTable.Entry> c = switch (by) {
+      case "ghosts" -> ghosts;
+      case "bytes" -> Comparator.comparingLong(e -> e.bytes);
+      case "servers" -> Comparator.<OwnerTable.Entry>comparingInt(OwnerTable.Entry::serverCount).thenComparing(ghosts);
+      case "sightings" -> Comparator.comparingLong(e -> e.sightings);
+      default -> null;
+    };
+    return c == null ? null : c.reversed().thenComparing(e -> e.owner);
+  }
+
+  private void add(Path file) {
+    try (ReportReader r = new ReportReader(file)) {
+      if (r.periodEndMillis() < since || r.periodStartMillis() >= until) { outOfRange++; return; }
+      int server = serverIds.computeIfAbsent(r.server(), k -> serverIds.size());
+      ServerStats s = servers.computeIfAbsent(r.server(), k -> new ServerStats());
+      s.reports++;
+      for (FleetReport.World w : r.worlds()) {
+        s.scans += w.scans();
+        s.scanNanos += w.scanNanos();
+        s.maxScanNanos = Math.max(s.maxScanNanos, w.maxScanNanos());
+        s.maxTracked = Math.max(s.maxTracked, w.maxTracked());
+        s.stable += w.stable();
+        s.unlinks += w.unlinks();
+      }
+      if (r.periodEndMillis() >= s.lastMillis) {
+        s.lastMillis = r.periodEndMillis();
+        s.pluginVersion = r.pluginVersion();
+      }
+      firstMillis = Math.min(firstMillis, r.periodStartMillis());
+      lastMillis = Math.max(lastMillis, r.periodEndMillis());
+      for (FleetReport.Owner o; (o = r.nextOwner()) != null; ) {
+        owners.add(o, server, r.periodStartMillis(), r.periodEndMillis());
+      }
+      reports++;
+    } catch (IOException | RuntimeException e) {
+      skipped++;
+      System.err.println(file + ": skipped (" + e.getMessage() + ")");
+    }
+  }
+
+  private void print(Comparator<OwnerTable.Entry> order, int top, long nanos) {
+    System.out.println(LogFmt.of("fleet", servers.size() + " servers")
+        .kv("reports", reports)
+        .kv("skipped", skipped)
+        .kv("outOfRange", outOfRange)
+        .kv("from", reports == 0 ? "-" : DAY.format(Instant.ofEpochMilli(firstMillis)))
+        .kv("to", reports == 0 ? "-" : DAY.format(Instant.ofEpochMilli(lastMillis)))
+        .kv("owners", owners.size())
+        .kv("evictions", owners.evictions())
+        .kv("ms", String.format("%.1f", nanos / 1e6))
+        .toString());
+
+    servers.forEach((name, s) -> System.out.println(LogFmt.of("server", name)
+        .kv("version", s.pluginVersion)
+        .kv("reports", s.reports)
+        .kv("scans", s.scans)
+        .kv("meanScanMs", String.format("%.2f", s.scans == 0 ? 0.0 : s.scanNanos / 1e6 / s.scans))
+        .kv("maxScanMs", String.format("%.2f", s.maxScanNanos / 1e6))
+        .kv("maxTracked", s.maxTracked)
+        .kv("stable", s.stable)
+        .kv("unlinks", s.unlinks)
+        .toString()));
+
+    int rank = 0;
+    for (OwnerTable.Entry e : owners.ranked(order, top)) {
+      LogFmt line = LogFmt.of("rank", ++rank)
+          .kv("owner", e.owner)
+          .kv("fp", Long.toHexString(e.fingerprint))
+          .kv("ghosts", e.ghosts)
+          .kv("servers", e.serverCount() + "/" + servers.size())
+          .kv("estMB", String.format("%.1f", e.bytes / 1048576.0))
+          .kv("sightings", e.sightings)
+          .kv("unlinked", e.unlinked)
+          .kv("failed", e.failed)
+          .kv("dry", e.dryRuns)
+          .kv("types", e.topTypes(TYPES_SHOWN).stream()
+              .map(t -> t.getKey() + ":" + t.getValue())
+              .collect(Collectors.joining(",")))
+          .kv("first", DAY.format(Instant.ofEpochMilli(e.firstMillis)))
+          .kv("last", DAY.format(Instant.ofEpochMilli(e.lastMillis)));
+      if (e.error > 0) line.kv("ghostsError", e.error);
+      System.out.println(line.toString());
+    }
+  }
+}
@@ -0,0 +1,88 @@
+package com.splatage.ghostbuster.fleet;
+
+import com.splatage.ghostbuster.report.FleetReport;
+
+import java.util.*;
+
+/**
+ * Fleet-wide totals per owner fingerprint in at most {@code capacity} entries
+ * (Space-Saving): when full, an unseen owner replaces the one with the fewest ghosts
+ * and inherits that count as its {@code error}. Owners are container fields, so a fleet
+ * rarely has more than a few hundred and the totals stay exact; the cap only bounds
+ * memory against pathological input. Bytes and outcome counts are not inherited, so for
+ * an owner that replaced another they cover only what was seen after it entered.
+ */
+final class OwnerTable {
+  private static final int MAX_TYPES = 16;
+
+  static final class Entry {
+    final long fingerprint;
+    final String owner;
+    long ghosts, error, sightings, bytes, dryRuns, unlinked, failed, reports;
+    long firstMillis = Long.MAX_VALUE, lastMillis;
+    final BitSet servers = new BitSet();
+    final Map<String, Long> types = new HashMap<>();
+
+    Entry(long fingerprint, String owner) { this.fingerprint = fingerprint; this.owner = owner; }
+
+    int serverCount() { return servers.cardinality(); }
+
+    /** Entity types, most ghosts first. */
+    List<Map.Entry<String, Long>> topTypes(int n) {
+      return types.entrySet().stream()
+          .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+          .limit(n)
+          .toList();
+    }
+  }
+
+  private final int capacity;
+  private final Map<Long, Entry> entries = new HashMap<>();
+  private long evictions;
+
+  OwnerTable(int capacity) { this.capacity = Math.max(1, capacity); }
+
+  void add(FleetReport.Owner o, int server, long periodStartMillis, long periodEndMillis) {
+    Entry e = entries.get(o.fingerprint());
+    if (e == null) {
+      e = new Entry(o.fingerprint(), o.owner());
+      if (entries.size() >= capacity) {
+        Entry min = evictMin();
+        e.ghosts = min.ghosts;
+        e.error = min.ghosts;
+      }
+      entries.put(o.fingerprint(), e);
+    }
+    e.ghosts += o.ghosts();
+    e.sightings += o.sightings();
+    e.bytes += o.estimatedBytes();
+    e.dryRuns += o.dryRuns();
+    e.unlinked += o.unlinked();
+    e.failed += o.failed();
+    e.reports++;
+    e.firstMillis = Math.min(e.firstMillis, periodStartMillis);
+    e.lastMillis = Math.max(e.lastMillis, periodEndMillis);
+    e.servers.set(server);
+    for (Map.Entry<String, Long> t : o.entityTypes().entrySet()) {
+      String type = e.types.size() < MAX_TYPES || e.types.containsKey(t.getKey()) ? t.getKey() : "other";
+      e.types.merge(type, t.getValue(), Long::sum);
+    }
+  }
+
+  // Linear in capacity, but only runs once the table is full of distinct owners
+  private Entry evictMin() {
+    Entry min = null;
+    for (Entry e : entries.values()) if (min == null || e.ghosts < min.ghosts) min = e;
+    entries.remove(min.fingerprint);
+    evictions++;
+    return min;
+  }
+
+  List<Entry> ranked(Comparator<Entry> order, int top) {
+    return entries.values().stream().sorted(order).limit(top).toList();
+  }
+
+  int size() { return entries.size(); }
+
+  long evictions() { return evictions; }
+}
@@ -1 +1,3 @@
 rootProject.name = "ghostbuster"
+
+include("fleet")
@@ -29,7 +29,7 @@ public final class GhostBusterPlugin extends JavaPlugin {
     getCommand("ghostbuster").setExecutor(this);
 
     this.cfg = PluginConfig.from(getConfig());
-    this.platform = PlatformInfo.detect(Bukkit.getServer());
+    this.platform = PlatformInfo.detect(Bukkit.getServer(), cfg.parallelTickingOverride());
     this.scheduler = new SchedulerFacadeImpl(this, platform);
 
     if (platform.parallelTickingDetected() && !cfg.allowUnderParallelTicking()) {
@@ -68,6 +68,7 @@ public final class GhostBusterPlugin extends JavaPlugin {
       getConfig().set("dry-run", newVal);
       saveConfig();
       cfg = PluginConfig.from(getConfig());
+      service.reconfigure(cfg);
       sender.sendMessage("dry-run set to " + newVal);
       return true;
     }
@@ -77,10 +78,24 @@ public final class GhostBusterPlugin extends JavaPlugin {
       getConfig().set("logging.reflector-debug", newVal);
       saveConfig();
       cfg = PluginConfig.from(getConfig());
+      service.reconfigure(cfg);
       sender.sendMessage("reflector-debug set to " + newVal);
       return true;
     }
 
+    if (args[0].equalsIgnoreCase("reload")) {
+      reloadConfig();
+      cfg = PluginConfig.from(getConfig());
+      service.reconfigure(cfg);
+      sender.sendMessage(LogFmt.of("reloaded", "config.yml")
+          .kv("dryRun", cfg.dryRun())
+          .kv("profiles", cfg.worldProfiles().keySet())
+          .kv("include", cfg.worldsInclude())
+          .kv("exclude", cfg.worldsExclude())
+          .toString());
+      return true;
+    }
+
     if (args[0].equalsIgnoreCase("dump")) {
       if (!cfg.logReflectorDebug()) {
         sender.sendMessage("reflector-debug is off. Use /ghostbuster debug to enable.");
@@ -97,6 +112,38 @@ public final class GhostBusterPlugin extends JavaPlugin {
       return true;
     }
 
+    if (args[0].equalsIgnoreCase("profile")) {
+      service.requestProfile(args.length >= 2 ? args[1] : null, sender::sendMessage);
+      return true;
+    }
+
+    if (args[0].equalsIgnoreCase("history")) {
+      int hours = 24;
+      if (args.length >= 2) {
+        try { hours = Integer.parseInt(args[1]); } catch (NumberFormatException e) {
+          sender.sendMessage("Usage: /ghostbuster history [hours] [world]");
+          return true;
+        }
+      }
+      service.requestHistory(hours, args.length >= 3 ? args[2] : null, sender::sendMessage);
+      return true;
+    }
+
+    if (args[0].equalsIgnoreCase("trace")) {
+      service.requestTrace(args.length >= 2 ? args[1] : null, sender::sendMessage);
+      return true;
+    }
+
+    if (args[0].equalsIgnoreCase("report")) {
+      service.requestReport(sender::sendMessage);
+      return true;
+    }
+
+    if (args[0].equalsIgnoreCase("estimate")) {
+      service.requestEstimates(sender::sendMessage);
+      return true;
+    }
+
     if (args[0].equalsIgnoreCase("prune") && args.length == 2) {
       service.requestPrune(args[1], sender::sendMessage);
       return true;
@@ -132,7 +179,7 @@ public final class GhostBusterPlugin extends JavaPlugin {
       return true;
     }
 
-    sender.sendMessage("Usage: /ghostbuster <status|dryrun|debug|dump|scan|prune <uuid>|test>");
+    sender.sendMessage("Usage: /ghostbuster <status|dryrun|debug|reload|dump|scan|profile [world]|estimate|trace [start|stop]|history [hours] [world]|report|prune <uuid>|test>");
     return true;
   }
 }
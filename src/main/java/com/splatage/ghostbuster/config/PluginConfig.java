@@ -1,36 +1,171 @@
 package com.splatage.ghostbuster.config;
 
+import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.FileConfiguration;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 public record PluginConfig(
     boolean dryRun,
     boolean allowUnderParallelTicking,
+    String parallelTicking,
     int scanIntervalSeconds,
     int verifyDelayTicks,
     int hysteresisCycles,
+    int fingerprintMaxReuse,
+    boolean optimisticUnderParallelTicking,
+    int optimisticRetries,
+    boolean scanSampling,
+    int traversalBudgetMs,
+    int traversalMaxDepth,
+    int ownerMaxDepth,
+    int traversalMaxNodes,
+    int bootstrapChunksPerTick,
+    int bootstrapTickBudgetMs,
+    int reconcileIntervalSeconds,
+    int reconcileChunksPerPass,
     int maxUnlinksPerTick,
     int maxUnlinksPerMinute,
     int maxMapScanEntries,
+    Map<String, Integer> containerScanCaps,
     int logOwnerSample,
+    int sizeEstimateNodeCap,
+    int sizeEstimatesPerScan,
     boolean verbose,
-    boolean logReflectorDebug
+    boolean logReflectorDebug,
+    int logSinkCapacity,
+    int logMaxLinesPerSecond,
+    String logJsonlFile,
+    int traceMaxMb,
+    int historyRecords,
+    int reportIntervalMinutes,
+    String reportServerId,
+    boolean quarantineEnabled,
+    List<String> quarantineKnownOwners,
+    boolean quarantineLearnOwners,
+    int quarantineMaxMspt,
+    int quarantineBatchSize,
+    List<String> worldsInclude,
+    List<String> worldsExclude,
+    Map<String, WorldProfile> worldProfiles
 ) {
   public static PluginConfig from(FileConfiguration c) {
-    return new PluginConfig(
+    // Global scan settings double as the defaults of every world profile
+    WorldProfile defaults = new WorldProfile(
+        c.getInt("scan.interval-seconds", 60),
+        c.getInt("limits.max-map-scan-entries", 10000),
+        c.getInt("scan.traversal-budget-ms", 0),
+        c.getInt("scan.hysteresis-cycles", 3),
         c.getBoolean("dry-run", true),
+        List.of()
+    );
+    return new PluginConfig(
+        defaults.dryRun(),
         c.getBoolean("allow-under-parallel-ticking", false),
-        c.getInt("scan.interval-seconds", 60),
+        c.getString("parallel-ticking", "auto"),
+        defaults.intervalSeconds(),
         c.getInt("scan.verify-delay-ticks", 5),
-        c.getInt("scan.hysteresis-cycles", 3),
+        defaults.hysteresisCycles(),
+        c.getInt("scan.fingerprint-max-reuse", 10),
+        c.getBoolean("scan.optimistic-under-parallel-ticking", true),
+        c.getInt("scan.optimistic-retries", 3),
+        c.getBoolean("scan.sampling", true),
+        defaults.traversalBudgetMs(),
+        c.getInt("scan.traversal-max-depth", 2),
+        c.getInt("scan.owner-max-depth", 8),
+        c.getInt("scan.traversal-max-nodes", 20000),
+        c.getInt("bootstrap.chunks-per-tick", 256),
+        c.getInt("bootstrap.tick-budget-ms", 5),
+        c.getInt("reconcile.interval-seconds", 10),
+        c.getInt("reconcile.chunks-per-pass", 256),
         c.getInt("limits.max-unlinks-per-tick", 10),
         c.getInt("limits.max-unlinks-per-minute", 200),
-        c.getInt("limits.max-map-scan-entries", 10000),
+        defaults.maxMapScanEntries(),
+        intMap(c.getConfigurationSection("limits.container-caps")),
         c.getInt("limits.log-owner-sample", 5),
+        c.getInt("limits.size-estimate-node-cap", 2000),
+        c.getInt("limits.size-estimates-per-scan", 64),
         c.getBoolean("logging.verbose", false),
-        c.getBoolean("logging.reflector-debug", false)
+        c.getBoolean("logging.reflector-debug", false),
+        c.getInt("logging.sink-capacity", 4096),
+        c.getInt("logging.max-lines-per-second", 20),
+        c.getString("logging.jsonl-file", ""),
+        c.getInt("trace.max-mb", 256),
+        c.getInt("history.records", 200000),
+        c.getInt("report.interval-minutes", 60),
+        c.getString("report.server-id", ""),
+        c.getBoolean("quarantine.enabled", false),
+        List.copyOf(c.getStringList("quarantine.known-owners")),
+        c.getBoolean("quarantine.learn-owners", false),
+        c.getInt("quarantine.max-mspt", 40),
+        c.getInt("quarantine.batch-size", 50),
+        List.copyOf(c.getStringList("worlds.include")),
+        List.copyOf(c.getStringList("worlds.exclude")),
+        profiles(c.getConfigurationSection("worlds.profiles"), defaults)
     );
   }
 
+  private static Map<String, WorldProfile> profiles(ConfigurationSection sec, WorldProfile defaults) {
+    if (sec == null) return Map.of();
+    Map<String, WorldProfile> out = new LinkedHashMap<>();
+    for (String world : sec.getKeys(false)) {
+      ConfigurationSection p = sec.getConfigurationSection(world);
+      if (p != null) out.put(world, WorldProfile.from(p, defaults));
+    }
+    return Collections.unmodifiableMap(out);
+  }
+
+  /** Settings for {@code world}: its profile if one is configured, else the global values. */
+  public WorldProfile profile(String world) {
+    WorldProfile p = worldProfiles.get(world);
+    return p != null ? p : defaultProfile();
+  }
+
+  private WorldProfile defaultProfile() {
+    return new WorldProfile(scanIntervalSeconds, maxMapScanEntries, traversalBudgetMs, hysteresisCycles, dryRun, List.of());
+  }
+
+  /** parallel-ticking as an override: true/false force it, anything else ("auto") leaves it to detection. */
+  public Boolean parallelTickingOverride() {
+    if ("true".equalsIgnoreCase(parallelTicking)) return Boolean.TRUE;
+    if ("false".equalsIgnoreCase(parallelTicking)) return Boolean.FALSE;
+    return null;
+  }
+
+  /** Dry-run is a master switch: a world runs live only when neither the global nor its profile says dry-run. */
+  public boolean dryRun(String world) {
+    return dryRun || profile(world).dryRun();
+  }
+
+  /** Include list (empty = every world) minus the exclude list. */
+  public boolean scansWorld(String world) {
+    return (worldsInclude.isEmpty() || worldsInclude.contains(world)) && !worldsExclude.contains(world);
+  }
+
+  /** Whether {@code ownerKey} is configured as safe for quarantine detach; others only alert, unless learn-owners learns them. */
+  public boolean knownOwner(String ownerKey) {
+    for (String k : quarantineKnownOwners) if (ownerMatches(ownerKey, k)) return true;
+    return false;
+  }
+
+  /**
+   * Container keys match on the owner key suffix, so "ChunkMap#entityMap" covers
+   * "net.minecraft.server.level.ChunkMap#entityMap".
+   */
+  public static boolean ownerMatches(String ownerKey, String key) {
+    return ownerKey.equals(key) || ownerKey.endsWith("." + key) || ownerKey.endsWith("$" + key);
+  }
+
+  private static Map<String, Integer> intMap(ConfigurationSection sec) {
+    if (sec == null) return Map.of();
+    Map<String, Integer> out = new LinkedHashMap<>();
+    for (String k : sec.getKeys(false)) out.put(k, sec.getInt(k, 0));
+    return Collections.unmodifiableMap(out);
+  }
+
   public boolean logReflectorDebug() {
     return logReflectorDebug;
   }
@@ -0,0 +1,37 @@
+package com.splatage.ghostbuster.config;
+
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.util.List;
+
+/**
+ * Scan settings for one world: the global values with any overrides from
+ * {@code worlds.profiles.<world>}. An empty container list means every tracker
+ * container is read; otherwise only containers whose owner key matches an entry.
+ */
+public record WorldProfile(
+    int intervalSeconds,
+    int maxMapScanEntries,
+    int traversalBudgetMs,
+    int hysteresisCycles,
+    boolean dryRun,
+    List<String> containers
+) {
+  static WorldProfile from(ConfigurationSection sec, WorldProfile defaults) {
+    return new WorldProfile(
+        sec.getInt("interval-seconds", defaults.intervalSeconds()),
+        sec.getInt("max-map-scan-entries", defaults.maxMapScanEntries()),
+        sec.getInt("traversal-budget-ms", defaults.traversalBudgetMs()),
+        sec.getInt("hysteresis-cycles", defaults.hysteresisCycles()),
+        sec.getBoolean("dry-run", defaults.dryRun()),
+        List.copyOf(sec.getStringList("containers"))
+    );
+  }
+
+  /** Whether {@code ownerKey} ("pkg.Class#field") is read in this world. */
+  public boolean readsContainer(String ownerKey) {
+    if (containers.isEmpty()) return true;
+    for (String c : containers) if (PluginConfig.ownerMatches(ownerKey, c)) return true;
+    return false;
+  }
+}
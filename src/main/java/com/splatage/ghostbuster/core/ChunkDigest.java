@@ -0,0 +1,97 @@
+package com.splatage.ghostbuster.core;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Per world and chunk, an order-independent digest of the live index entries counted in
+ * that chunk. Add/remove events fold UUIDs in and out as they happen; reconciliation
+ * computes the same digest from a chunk's actual entities and only rebuilds chunks
+ * where the two differ. The counted UUIDs are kept per chunk as well, so a chunk that
+ * still differs after its repair is looked up without reading the whole index. Chunks
+ * whose digest returns to empty are dropped.
+ */
+final class ChunkDigest {
+  /** XOR and sum of mixed UUIDs plus a count: equal sets give equal digests, in any order. */
+  record Digest(long xor, long sum, int count) {
+    static final Digest EMPTY = new Digest(0L, 0L, 0);
+
+    Digest plus(UUID id) {
+      long h = mix(id);
+      return new Digest(xor ^ h, sum + h, count + 1);
+    }
+
+    Digest minus(UUID id) {
+      long h = mix(id);
+      return new Digest(xor ^ h, sum - h, count - 1);
+    }
+
+    boolean isEmpty() { return xor == 0L && sum == 0L && count == 0; }
+  }
+
+  private final ConcurrentMap<String, ConcurrentMap<Long, Digest>> worlds = new ConcurrentHashMap<>();
+  // Same keys; updated inside the digest's compute, so both change together per chunk
+  private final ConcurrentMap<String, ConcurrentMap<Long, Set<UUID>>> members = new ConcurrentHashMap<>();
+
+  void add(String world, long chunkKey, UUID id) {
+    chunks(world).compute(chunkKey, (k, d) -> {
+      members(world).computeIfAbsent(k, x -> ConcurrentHashMap.newKeySet()).add(id);
+      return orNull((d == null ? Digest.EMPTY : d).plus(id));
+    });
+  }
+
+  void remove(String world, long chunkKey, UUID id) {
+    chunks(world).compute(chunkKey, (k, d) -> {
+      members(world).computeIfPresent(k, (x, ids) -> ids.remove(id) && ids.isEmpty() ? null : ids);
+      return orNull((d == null ? Digest.EMPTY : d).minus(id));
+    });
+  }
+
+  Digest get(String world, long chunkKey) {
+    Map<Long, Digest> m = worlds.get(world);
+    Digest d = m == null ? null : m.get(chunkKey);
+    return d == null ? Digest.EMPTY : d;
+  }
+
+  /** UUIDs the index counts in this chunk; a snapshot. */
+  List<UUID> members(String world, long chunkKey) {
+    Map<Long, Set<UUID>> m = members.get(world);
+    Set<UUID> ids = m == null ? null : m.get(chunkKey);
+    return ids == null ? List.of() : List.copyOf(ids);
+  }
+
+  /** Chunks of {@code world} the index counts entries in; a snapshot. */
+  long[] chunkKeys(String world) {
+    Map<Long, Digest> m = worlds.get(world);
+    if (m == null) return new long[0];
+    return m.keySet().stream().mapToLong(Long::longValue).toArray();
+  }
+
+  int chunkCount() {
+    int n = 0;
+    for (Map<Long, Digest> m : worlds.values()) n += m.size();
+    return n;
+  }
+
+  private ConcurrentMap<Long, Digest> chunks(String world) {
+    return worlds.computeIfAbsent(world, k -> new ConcurrentHashMap<>());
+  }
+
+  private ConcurrentMap<Long, Set<UUID>> members(String world) {
+    return members.computeIfAbsent(world, k -> new ConcurrentHashMap<>());
+  }
+
+  private static Digest orNull(Digest d) { return d.isEmpty() ? null : d; }
+
+  // 64-bit finalizer over both halves, so UUIDs sharing bits do not cancel in the XOR
+  private static long mix(UUID u) {
+    long z = u.getMostSignificantBits() ^ Long.rotateLeft(u.getLeastSignificantBits(), 32);
+    z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+    z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+    return z ^ (z >>> 33);
+  }
+}
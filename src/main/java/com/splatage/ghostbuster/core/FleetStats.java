@@ -0,0 +1,79 @@
+package com.splatage.ghostbuster.core;
+
+import com.splatage.ghostbuster.report.FleetReport;
+import com.splatage.ghostbuster.util.LogEvent;
+
+import java.util.*;
+
+/**
+ * Accumulates one reporting period of scan cost and ghost owners for the fleet report.
+ * Updates come from the analyzer (scans) and region threads (ghost reports); both are
+ * rare enough for a single lock. {@link #drain} hands over the period and starts the next.
+ */
+final class FleetStats {
+  private static final int MAX_TYPES = 16; // per owner; further types count as "other"
+
+  private static final class WorldStats {
+    int scans, maxTracked;
+    long nanos, maxNanos, ghosts, stable, unlinks;
+  }
+
+  private static final class OwnerStats {
+    long sightings, bytes, dryRuns, unlinked, failed;
+    final Set<UUID> ghosts = new HashSet<>();
+    final Map<String, Long> types = new LinkedHashMap<>();
+  }
+
+  // guarded by this
+  private Map<String, WorldStats> worlds = new LinkedHashMap<>();
+  private Map<String, OwnerStats> owners = new HashMap<>();
+  private long periodStart;
+
+  FleetStats(long nowMillis) { this.periodStart = nowMillis; }
+
+  synchronized void scan(String world, long nanos, int tracked, int ghosts, int stable, int unlinks) {
+    WorldStats w = worlds.computeIfAbsent(world, k -> new WorldStats());
+    w.scans++;
+    w.nanos += nanos;
+    w.maxNanos = Math.max(w.maxNanos, nanos);
+    w.maxTracked = Math.max(w.maxTracked, tracked);
+    w.ghosts += ghosts;
+    w.stable += stable;
+    w.unlinks += unlinks;
+  }
+
+  synchronized void ghost(String owner, UUID id, String entityType, long estBytes, LogEvent outcome) {
+    OwnerStats o = owners.computeIfAbsent(owner, k -> new OwnerStats());
+    o.sightings++;
+    switch (outcome) {
+      case GHOST_DRY -> o.dryRuns++;
+      case GHOST_UNLINKED, GHOST_UNLINK_PARTIAL, GHOST_DETACHED -> o.unlinked++;
+      case GHOST_UNLINK_FAILED -> o.failed++;
+      default -> {}
+    }
+    if (!o.ghosts.add(id)) return; // bytes and types count each ghost once per period
+    o.bytes += Math.max(0L, estBytes);
+    String type = entityType == null ? "unknown"
+        : o.types.size() < MAX_TYPES || o.types.containsKey(entityType) ? entityType : "other";
+    o.types.merge(type, 1L, Long::sum);
+  }
+
+  synchronized boolean isEmpty() { return worlds.isEmpty() && owners.isEmpty(); }
+
+  /** The period up to {@code nowMillis} as a report; the next period starts empty. */
+  synchronized FleetReport drain(String server, String pluginVersion, String serverVersion, long nowMillis) {
+    List<FleetReport.World> ws = new ArrayList<>(worlds.size());
+    worlds.forEach((name, w) -> ws.add(new FleetReport.World(name, w.scans, w.nanos, w.maxNanos, w.maxTracked,
+        w.ghosts, w.stable, w.unlinks)));
+    List<FleetReport.Owner> os = new ArrayList<>(owners.size());
+    owners.forEach((owner, o) -> os.add(new FleetReport.Owner(FleetReport.fingerprint(owner), owner, o.sightings,
+        o.ghosts.size(), o.bytes, o.dryRuns, o.unlinked, o.failed, Map.copyOf(o.types))));
+    os.sort(Comparator.comparingLong(FleetReport.Owner::sightings).reversed());
+
+    FleetReport r = new FleetReport(server, pluginVersion, serverVersion, periodStart, nowMillis, ws, os);
+    worlds = new LinkedHashMap<>();
+    owners = new HashMap<>();
+    periodStart = nowMillis;
+    return r;
+  }
+}
@@ -3,8 +3,21 @@ package com.splatage.ghostbuster.core;
 import com.splatage.ghostbuster.config.PluginConfig;
 import com.splatage.ghostbuster.platform.PlatformInfo;
 import com.splatage.ghostbuster.platform.SchedulerFacade;
+import com.splatage.ghostbuster.reflect.ContainerEstimate;
+import com.splatage.ghostbuster.reflect.ContainerProfile;
 import com.splatage.ghostbuster.reflect.NmsIntrospector;
+import com.splatage.ghostbuster.reflect.OwnerSearch;
 import com.splatage.ghostbuster.reflect.Reflectors;
+import com.splatage.ghostbuster.reflect.TrackerSnapshot;
+import com.splatage.ghostbuster.reflect.Unlink;
+import com.splatage.ghostbuster.report.FleetReport;
+import com.splatage.ghostbuster.report.ReportWriter;
+import com.splatage.ghostbuster.trace.ScanTrace;
+import com.splatage.ghostbuster.trace.TraceRecorder;
+import com.splatage.ghostbuster.trace.UnlinkTrace;
+import com.splatage.ghostbuster.util.EventSink;
+import com.splatage.ghostbuster.util.HeapBaseline;
+import com.splatage.ghostbuster.util.LogEvent;
 import com.splatage.ghostbuster.util.LogFmt;
 import org.bukkit.Bukkit;
 import org.bukkit.World;
@@ -15,6 +28,12 @@ import com.destroystokyo.paper.event.entity.EntityAddToWorldEvent;
 import com.destroystokyo.paper.event.entity.EntityRemoveFromWorldEvent;
 import org.bukkit.plugin.Plugin;
 
+import java.io.IOException;
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -22,78 +41,220 @@ import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 public final class GhostBusterService implements Listener {
+  private static final int PROFILE_LINES = 15;
+  private static final int HISTORY_ROWS = 12;
+
   private final Plugin plugin;
-  private final PluginConfig cfg;
+  private volatile PluginConfig cfg; // swapped whole by reconfigure(); read once per operation
   private final SchedulerFacade sched;
   private final PlatformInfo platform;
+
   private final NmsIntrospector nms;
+  private final EventSink events;
 
   private final ConcurrentMap<UUID, String> live = new ConcurrentHashMap<>();
   private final ScheduledExecutorService analyzePool =
       Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "GhostBuster-Analyzer"));
 
-  private final SnapshotDiff history = new SnapshotDiff();
-  private final RateLimiter unlinkRate;
+  // Hysteresis and unlink budget; kept free of server types so traces can be replayed offline
+  private final ScanDecisions decisions;
+  private final TraceRecorder tracer;
+
+  // Per-world scan samples that survive restarts; null when disabled or the file cannot be mapped
+  private final HistoryRing historyRing;
+  private final ConcurrentMap<String, AtomicInteger> unlinksSinceScan = new ConcurrentHashMap<>();
+
+  // Owners, entity types and scan cost since the last fleet report
+  private final FleetStats fleet = new FleetStats(System.currentTimeMillis());
+  private final int reportIntervalMinutes; // fixed at start-up: the export task is scheduled once
+
+  // Retained-size estimates for ghost suspects; computed once per ghost, dropped when it leaves history
+  private final ConcurrentMap<UUID, Long> estimatedBytes = new ConcurrentHashMap<>();
+
+  // Definite-miss filter over the last full snapshot, so untracked removes skip the verify walk
+  private final TrackerPrefilter trackerFilter = new TrackerPrefilter();
+
+  private final RegionBatcher verifyBatcher;
+  private final LiveIndexBootstrap bootstrap;
+
+  // Last known chunk per entity, kept past removal so ghosts can be handled on their own region
+  private final LocationIndex locations = new LocationIndex();
+
+  // Per-chunk digest of live entries (counted in the chunk their location names) and its repair loop
+  private final ChunkDigest liveDigest = new ChunkDigest();
+  private final LiveIndexReconciler reconciler;
+  private final int reconcileIntervalSeconds; // fixed at start-up like the report period
+
+  // Confirmed ghosts with recorded owner entries, detached in batches while ticks are cheap
+  private final QuarantineQueue quarantine = new QuarantineQueue();
+  // With quarantine.learn-owners: owners a full unlink has detached a ghost from, kept in learned-owners.txt
+  private final Set<String> learnedOwners = ConcurrentHashMap.newKeySet();
 
   // Avoid duplicate verify schedules for the same UUID in rapid-churn scenarios
   private final Set<UUID> pendingVerify = ConcurrentHashMap.newKeySet();
 
   private long lastGcTimestamp = 0;
 
+  // Per world: when its next periodic scan is due (epoch millis), from its profile's interval
+  private final Map<String, Long> nextScanAt = new ConcurrentHashMap<>();
+
   public GhostBusterService(Plugin plugin, PluginConfig cfg, SchedulerFacade sched, PlatformInfo platform) {
     this.plugin = plugin; this.cfg = cfg; this.sched = sched; this.platform = platform;
     this.nms = new NmsIntrospector(plugin.getLogger(), cfg);
-    this.unlinkRate = new RateLimiter(cfg.maxUnlinksPerTick(), cfg.maxUnlinksPerMinute());
+    this.verifyBatcher = new RegionBatcher(sched);
+    this.bootstrap = new LiveIndexBootstrap(plugin, sched, this::recordLive,
+        cfg.bootstrapChunksPerTick(), cfg.bootstrapTickBudgetMs());
+    this.decisions = new ScanDecisions(cfg.maxUnlinksPerTick(), cfg.maxUnlinksPerMinute());
+    this.tracer = new TraceRecorder(plugin.getLogger());
+    this.historyRing = openHistory();
+    loadLearnedOwners();
+    this.reportIntervalMinutes = Math.max(0, cfg.reportIntervalMinutes());
+    this.events = new EventSink(plugin.getLogger(), cfg.logSinkCapacity(), cfg.logMaxLinesPerSecond(),
+        cfg.logJsonlFile().isBlank() ? null : plugin.getDataFolder().toPath().resolve(cfg.logJsonlFile()));
+    this.reconcileIntervalSeconds = Math.max(0, cfg.reconcileIntervalSeconds());
+    this.reconciler = new LiveIndexReconciler(plugin, sched, live, locations, liveDigest, this::recordLive,
+        this::dropLive, bootstrap::complete, () -> this.cfg.reconcileChunksPerPass(), events);
   }
 
   public void start() {
+    events.start();
     plugin.getServer().getPluginManager().registerEvents(this, plugin);
 
-    // Initial sync snapshot of live entities (legal on global because it only reads Bukkit API)
-    sched.runGlobalSync(() -> {
+    // Build the live index chunk by chunk on the owning threads; detection waits for it
+    bootstrap.start();
+
+    // Worlds scan on their own intervals: check once a second which are due
+    analyzePool.scheduleWithFixedDelay(this::scanDueWorlds, 1, 1, TimeUnit.SECONDS);
+    analyzePool.scheduleWithFixedDelay(this::drainQuarantine, 1, 1, TimeUnit.SECONDS);
+
+    if (reconcileIntervalSeconds > 0) {
+      analyzePool.scheduleWithFixedDelay(reconciler::pass, reconcileIntervalSeconds, reconcileIntervalSeconds, TimeUnit.SECONDS);
+    }
+    if (reportIntervalMinutes > 0) {
+      analyzePool.scheduleWithFixedDelay(this::exportReportSafely, reportIntervalMinutes, reportIntervalMinutes, TimeUnit.MINUTES);
+    }
+  }
+
+  /**
+   * Applies a reloaded config without restarting: world profiles, include/exclude lists,
+   * container whitelists, scan caps, unlink limits and the parallel-ticking override take effect from the next scan.
+   * Bootstrap, event sink, history and trace sizing, the report period and the reconcile interval keep
+   * their start-up values.
+   */
+  public void reconfigure(PluginConfig next) {
+    this.cfg = next;
+    platform.setOverride(next.parallelTickingOverride());
+    nms.reconfigure(next);
+    decisions.setLimits(next.maxUnlinksPerTick(), next.maxUnlinksPerMinute());
+    nextScanAt.clear(); // new intervals count from now
+  }
+
+  private void scanDueWorlds() {
+    try {
+      if (!bootstrap.complete()) return;
+      PluginConfig cfg = this.cfg;
+      long now = System.currentTimeMillis();
+      List<World> due = new ArrayList<>();
       for (World w : Bukkit.getWorlds()) {
-        for (Entity e : w.getEntities()) {
-          live.put(e.getUniqueId(), w.getName());
+        if (!cfg.scansWorld(w.getName())) continue;
+        long interval = Math.max(1, cfg.profile(w.getName()).intervalSeconds()) * 1000L;
+        long at = nextScanAt.computeIfAbsent(w.getName(), k -> now + interval);
+        if (now >= at) {
+          due.add(w);
+          nextScanAt.put(w.getName(), now + interval);
         }
       }
-    });
-
-    long period = Math.max(1, cfg.scanIntervalSeconds());
-    analyzePool.scheduleAtFixedRate(this::snapshotThenAnalyze, period, period, TimeUnit.SECONDS);
+      if (!due.isEmpty()) snapshotThenAnalyze(due);
+    } catch (Throwable t) {
+      // A throw would cancel the repeating task
+      plugin.getLogger().warning("[GhostBuster] scan failed: " + t.getClass().getSimpleName() + ": " + t.getMessage());
+    }
   }
 
   public void stop() {
+    bootstrap.cancel();
+    reconciler.cancel();
     try { analyzePool.shutdownNow(); } catch (Throwable ignored) {}
     org.bukkit.event.HandlerList.unregisterAll(this);
+    tracer.stop();
+    if (historyRing != null) historyRing.close();
+    if (reportIntervalMinutes > 0 && !fleet.isEmpty()) exportReportSafely(); // the partial last period
+    events.close();
   }
 
   @EventHandler public void onAdd(EntityAddToWorldEvent e) {
-    var ent = e.getEntity();
-    live.put(ent.getUniqueId(), ent.getWorld().getName());
+    recordLive(e.getEntity());
+  }
+
+  // Also re-counts an entity already live (bootstrap overlap, reconcile) under its current chunk
+  private void recordLive(Entity ent) {
+    UUID id = ent.getUniqueId();
+    String world = ent.getWorld().getName();
+    if (live.put(id, world) != null) uncount(id);
+    trackerFilter.onAdd(world, id);
+    recordLocation(ent);
+    LocationIndex.Location loc = locations.get(id);
+    if (loc != null) liveDigest.add(world, SchedulerFacade.chunkKey(loc.chunkX(), loc.chunkZ()), id);
+  }
+
+  private void dropLive(UUID id) {
+    if (live.remove(id) != null) uncount(id);
+  }
+
+  // Takes a live entry out of the digest of the chunk its location names; call before the location changes
+  private void uncount(UUID id) {
+    LocationIndex.Location loc = locations.get(id);
+    if (loc != null) liveDigest.remove(loc.world(), SchedulerFacade.chunkKey(loc.chunkX(), loc.chunkZ()), id);
   }
 
   @EventHandler public void onRemove(EntityRemoveFromWorldEvent e) {
     UUID id = e.getEntity().getUniqueId();
-    live.remove(id);
+    dropLive(id);
+    recordLocation(e.getEntity()); // where a ghost was last seen is where its prune should run
 
     // Event-driven verify to catch ghosts created between interval scans
+    if (!cfg.scansWorld(e.getEntity().getWorld().getName())) return;
     int delay = Math.max(0, cfg.verifyDelayTicks()); // 0 means verify next tick
     scheduleVerify(e.getEntity(), delay);
   }
 
   public String statusLine() {
     return LogFmt.of("live", live.size())
-        .kv("ghosts", history.candidateSize())
+        .kv("index", bootstrap.complete() ? "ready" : "bootstrapping " + bootstrap.progress())
+        .kv("ghosts", decisions.candidateCount())
+        .kv("located", locations.size())
+        .kv("reconciled", reconciler.summary())
+        .kv("quarantined", quarantine.size())
+        .kv("deferredPasses", quarantine.deferredPasses())
+        .kv("walkTruncated", nms.truncatedWalks())
+        .kv("cachedContainers", nms.cachedContainers())
+        .kv("sampledContainers", nms.sampledContainers())
         .kv("retained", Reflectors.retainedCount())
         .kv("lastGC", (System.currentTimeMillis() - lastGcTimestamp) / 1000 + "s")
         .kv("dryRun", cfg.dryRun())
+        .kv("worlds", Bukkit.getWorlds().stream().filter(w -> cfg.scansWorld(w.getName())).count()
+            + "/" + Bukkit.getWorlds().size())
         .kv("pwt", platform.parallelTickingDetected())
+        .kv("optimistic", optimisticReads())
+        .kv("readRetries", nms.optimisticRetries())
+        .kv("skippedContainers", nms.unreadableContainers())
         .toString();
   }
 
   public void requestImmediateScan(Consumer<String> reply) {
     analyzePool.execute(() -> {
-      Map<String, Integer> result = snapshotThenAnalyze();
+      if (!bootstrap.complete()) {
+        reply.accept("Live index still bootstrapping (" + bootstrap.progress() + " chunks); scan skipped.");
+        return;
+      }
+      PluginConfig cfg = this.cfg;
+      List<World> worlds = new ArrayList<>();
+      for (World w : Bukkit.getWorlds()) if (cfg.scansWorld(w.getName())) worlds.add(w);
+      long now = System.currentTimeMillis();
+      for (World w : worlds) {
+        nextScanAt.put(w.getName(), now + Math.max(1, cfg.profile(w.getName()).intervalSeconds()) * 1000L);
+      }
+      Map<String, Integer> result = snapshotThenAnalyze(worlds);
       if (result.isEmpty()) {
         String msg = "Scan complete: no ghost candidates found.";
         plugin.getLogger().info(msg);
@@ -110,11 +271,150 @@ public final class GhostBusterService implements Listener {
   }
 
   public void requestPrune(String uuidStr, Consumer<String> reply) {
+    UUID id;
     try {
-      UUID id = UUID.fromString(uuidStr);
-      sched.withEntityWorld(id, world -> pruneOne(world, id, reply));
+      id = UUID.fromString(uuidStr);
     } catch (IllegalArgumentException ex) {
       reply.accept("Invalid UUID.");
+      return;
+    }
+
+    Entity e = Bukkit.getEntity(id);
+    if (e != null) {
+      // Still exists: check it on its owning thread (pruneOne reports it is not a ghost)
+      World w = e.getWorld();
+      sched.runForEntity(e, () -> pruneOne(w, id, "command", 0L, reply), () -> pruneAtLastLocation(id, reply));
+      return;
+    }
+    pruneAtLastLocation(id, reply);
+  }
+
+  private void pruneAtLastLocation(UUID id, Consumer<String> reply) {
+    LocationIndex.Location loc = locations.get(id);
+    if (loc == null) {
+      reply.accept("No known location for " + id + ".");
+      return;
+    }
+    World w = Bukkit.getWorld(loc.world());
+    if (w == null) {
+      reply.accept("World " + loc.world() + " is not loaded.");
+      return;
+    }
+    sched.runAt(w, loc.chunkX() << 4, loc.chunkZ() << 4,
+        () -> pruneOne(w, id, "command", estimatedBytes.getOrDefault(id, 0L), reply));
+  }
+
+  public void requestTrace(String action, Consumer<String> reply) {
+    if (action == null) {
+      reply.accept(tracer.active()
+          ? "Recording trace to " + tracer.file() + " (dropped=" + tracer.dropped() + ")"
+          : "Not recording. Use /ghostbuster trace start");
+      return;
+    }
+    if (action.equalsIgnoreCase("stop")) {
+      if (!tracer.active()) { reply.accept("Not recording."); return; }
+      Path file = tracer.file();
+      tracer.stop();
+      reply.accept("Trace written to " + file + " (dropped=" + tracer.dropped() + ")");
+      return;
+    }
+    if (action.equalsIgnoreCase("start")) {
+      if (tracer.active()) { reply.accept("Already recording to " + tracer.file()); return; }
+      Path file = plugin.getDataFolder().toPath().resolve("traces")
+          .resolve("scan-" + System.currentTimeMillis() + ".gbt");
+      try {
+        tracer.start(file, Math.max(1, cfg.traceMaxMb()) * 1024L * 1024L);
+        reply.accept("Recording scans to " + file + " (limit " + cfg.traceMaxMb() + " MB)");
+      } catch (IOException e) {
+        reply.accept("Cannot record trace: " + e.getMessage());
+      }
+      return;
+    }
+    reply.accept("Usage: /ghostbuster trace [start|stop]");
+  }
+
+  public void requestHistory(int hours, String world, Consumer<String> reply) {
+    if (historyRing == null) { reply.accept("History is off (history.records=0 or the file could not be mapped)."); return; }
+    analyzePool.execute(() -> {
+      long now = System.currentTimeMillis();
+      long since = now - Math.max(1, hours) * 3_600_000L;
+      List<String> lines = HistoryReport.render(historyRing.read(world, since), world, since, now, HISTORY_ROWS);
+      sched.runGlobalSync(() -> lines.forEach(reply));
+    });
+  }
+
+  public void requestReport(Consumer<String> reply) {
+    analyzePool.execute(() -> {
+      String msg;
+      try {
+        msg = "Fleet report written to " + exportReport();
+      } catch (IOException | RuntimeException e) {
+        msg = "Cannot write fleet report: " + e.getMessage();
+      }
+      String line = msg;
+      sched.runGlobalSync(() -> reply.accept(line));
+    });
+  }
+
+  public void requestEstimates(Consumer<String> reply) {
+    if (!cfg.scanSampling()) { reply.accept("Sampling is off (scan.sampling=false)."); return; }
+    List<ContainerEstimate> estimates = nms.samplingEstimates();
+    if (estimates.isEmpty()) { reply.accept("No container exceeds its scan cap; nothing is sampled."); return; }
+    estimates.sort(Comparator.comparingLong(ContainerEstimate::estimatedGhosts).reversed());
+    for (int i = 0; i < Math.min(PROFILE_LINES, estimates.size()); i++) {
+      ContainerEstimate e = estimates.get(i);
+      reply.accept(LogFmt.of("estimate", e.owner())
+          .kv("world", e.world())
+          .kv("size", e.size())
+          .kv("passes", e.passes())
+          .kv("passCoverage", String.format("%.0f%%", e.coverage() * 100))
+          .kv("examined", e.examined())
+          .kv("ghostRate", String.format("%.3f%% [%.3f%%, %.3f%%]", e.rate() * 100, e.low() * 100, e.high() * 100))
+          .kv("ghosts", e.estimatedGhosts() + " [" + e.estimatedGhostsLow() + ", " + e.estimatedGhostsHigh() + "]")
+          .kv("carried", e.carried())
+          .toString());
+    }
+  }
+
+  // One instrumented traversal per world; replies with the most expensive containers first
+  public void requestProfile(String worldName, Consumer<String> reply) {
+    List<World> worlds = new ArrayList<>();
+    if (worldName == null) {
+      worlds.addAll(Bukkit.getWorlds());
+    } else {
+      World w = Bukkit.getWorld(worldName);
+      if (w == null) { reply.accept("Unknown world: " + worldName); return; }
+      worlds.add(w);
+    }
+
+    for (World w : worlds) {
+      sched.runAt(w, 0, 0, () -> {
+        List<String> lines = new ArrayList<>();
+        try {
+          long t0 = System.nanoTime();
+          List<ContainerProfile> profile = nms.profileContainers(w, cfg.profile(w.getName()).maxMapScanEntries());
+          long total = System.nanoTime() - t0;
+          profile.sort(Comparator.comparingLong(ContainerProfile::nanos).reversed());
+
+          lines.add(LogFmt.of("profile", w.getName())
+              .kv("containers", profile.size())
+              .kv("totalMs", String.format("%.2f", total / 1e6))
+              .toString());
+          for (int i = 0; i < Math.min(PROFILE_LINES, profile.size()); i++) {
+            ContainerProfile p = profile.get(i);
+            lines.add(LogFmt.of("container", p.owner())
+                .kv("entries", p.scanned() + "/" + p.size())
+                .kv("ms", String.format("%.3f", p.nanos() / 1e6))
+                .kv("uuidHit", String.format("%.1f%%", p.hitRate() * 100))
+                .kv("uuidMiss", p.uuidMisses())
+                .kv("truncated", p.truncated())
+                .toString());
+          }
+        } catch (Throwable t) {
+          lines.add("profile failed in world " + w.getName() + ": " + t.getClass().getSimpleName() + ": " + t.getMessage());
+        }
+        sched.runGlobalSync(() -> lines.forEach(reply));
+      });
     }
   }
 
@@ -123,18 +423,41 @@ public final class GhostBusterService implements Listener {
     return nms.debugInjectGhost(world, uuid);
   }
 
-  private Map<String, Integer> snapshotThenAnalyze() {
+  private Map<String, Integer> snapshotThenAnalyze(List<World> worlds) {
     Map<String, Integer> resultMap = new HashMap<>();
+    // A half-built index would report every not-yet-indexed tracked entity as a ghost
+    if (!bootstrap.complete()) return resultMap;
+
+    PluginConfig cfg = this.cfg;
     Map<String, Set<UUID>> perWorldTracked = new ConcurrentHashMap<>();
+    Map<String, Long> snapshotNanos = new ConcurrentHashMap<>();
+
     Set<UUID> liveSnap = new HashSet<>(live.keySet());
+    Map<String, List<UUID>> liveByWorld = new HashMap<>();
+    live.forEach((u, world) -> liveByWorld.computeIfAbsent(world, k -> new ArrayList<>()).add(u));
+
+    for (World w : worlds) {
+      nms.beginScanGeneration(w.getName());
+      trackerFilter.beginSnapshot(w.getName());
+    }
+    platform.refresh();
+    nms.setOptimistic(optimisticReads());
 
     // Take per-world tracker snapshots on the world’s region thread
-    List<World> worlds = new ArrayList<>(Bukkit.getWorlds());
     CountDownLatch latch = new CountDownLatch(worlds.size());
     for (World w : worlds) {
       sched.runAt(w, 0, 0, () -> {
         try {
-          perWorldTracked.put(w.getName(), nms.snapshotTrackedUUIDs(w, cfg.maxMapScanEntries()));
+          long t0 = System.nanoTime();
+          Map<UUID, Long> sizes = new HashMap<>();
+          TrackerSnapshot snap = nms.snapshotTrackedUUIDs(w, cfg.profile(w.getName()).maxMapScanEntries(),
+              u -> !liveSnap.contains(u), u -> !estimatedBytes.containsKey(u), sizes);
+          snapshotNanos.put(w.getName(), System.nanoTime() - t0);
+          perWorldTracked.put(w.getName(), snap.uuids());
+          estimatedBytes.putAll(sizes);
+          // Only a snapshot that read every container in full can prove a UUID untracked
+          if (snap.full()) trackerFilter.rebuild(w.getName(), snap.uuids());
+          else trackerFilter.invalidate(w.getName());
         } catch (Throwable t) {
           plugin.getLogger().warning("[GhostBuster] snapshot failed in world " + w.getName() + ": " + t.getClass().getSimpleName());
         } finally {
@@ -149,102 +472,370 @@ public final class GhostBusterService implements Listener {
 
     lastGcTimestamp = System.currentTimeMillis();
 
-    Map<String, List<UUID>> ghostsByWorld = new HashMap<>();
-    for (var e : perWorldTracked.entrySet()) {
-      List<UUID> ghosts = e.getValue().stream()
-          .filter(u -> !liveSnap.contains(u))
-          .collect(Collectors.toList());
+    // Worlds in list order: the unlink budget below is taken in the same order, and a trace must replay it
+    boolean tracing = tracer.active();
+    long limiterWindow = decisions.limiterWindow();
+    int limiterUsed = decisions.limiterUsed();
+    Map<String, Map<UUID, Integer>> hysteresisBefore = new HashMap<>();
+    Map<String, List<UUID>> ghostsSeen = new HashMap<>();
+    Map<String, List<UUID>> ghostsByWorld = new LinkedHashMap<>();
+    int pluginsHash = historyRing != null ? pluginsHash() : 0;
+    long oldGen = historyRing != null ? HeapBaseline.oldGenAfterGc() : -1L;
+    for (World w : worlds) {
+      Set<UUID> tracked = perWorldTracked.get(w.getName());
+      if (tracked == null) continue;
+      if (tracing) hysteresisBefore.put(w.getName(), decisions.hysteresis(w.getName()));
 
+      List<UUID> ghosts = decisions.ghosts(tracked, liveSnap);
       if (!ghosts.isEmpty()) {
-        plugin.getLogger().info(
-            LogFmt.of("event", "ghosts.detected")
-                .kv("world", e.getKey())
-                .kv("count", ghosts.size())
-                .toString()
-        );
+        events.emit(LogEvent.GHOSTS_DETECTED, "scan", w.getName(), null, null, ghosts.size());
+      }
+      if (tracing) ghostsSeen.put(w.getName(), ghosts);
+
+      List<UUID> filtered = decisions.stable(w.getName(), ghosts, cfg.profile(w.getName()).hysteresisCycles());
+      ghostsByWorld.put(w.getName(), filtered);
+      resultMap.put(w.getName(), filtered.size());
+
+      int unlinks = unlinksSinceScan.computeIfAbsent(w.getName(), k -> new AtomicInteger()).getAndSet(0);
+      long nanos = snapshotNanos.getOrDefault(w.getName(), 0L);
+      fleet.scan(w.getName(), nanos, tracked.size(), ghosts.size(), filtered.size(), unlinks);
+      if (historyRing != null) {
+        historyRing.append(new HistoryRing.Sample(lastGcTimestamp, w.getName(),
+            liveByWorld.getOrDefault(w.getName(), List.of()).size(), tracked.size(), ghosts.size(), filtered.size(),
+            unlinks, pluginsHash, nanos, oldGen));
       }
-
-      List<UUID> filtered = history.filterStable(ghosts, cfg.hysteresisCycles());
-      ghostsByWorld.put(e.getKey(), filtered);
-      resultMap.put(e.getKey(), filtered.size());
     }
 
-    // Prune per-world, on region thread, honoring rate limits
-    if (!ghostsByWorld.isEmpty()) {
-      for (World w : worlds) {
-        List<UUID> candidates = ghostsByWorld.getOrDefault(w.getName(), List.of());
-        if (candidates.isEmpty()) continue;
-
-        int allowed = unlinkRate.permit(candidates.size());
-        if (allowed <= 0) continue;
-
-        AtomicInteger pruned = new AtomicInteger(0);
-        for (UUID id : candidates) {
-          if (pruned.get() >= allowed) break;
-          sched.runAt(w, 0, 0, () -> {
-            if (pruned.get() >= allowed) return;
-            try {
-              Reflectors.track(id, null); // Track ghost candidates only
-              pruneOne(w, id, msg -> plugin.getLogger().warning(msg));
-            } finally {
-              pruned.incrementAndGet();
-            }
-          });
-        }
+    estimatedBytes.keySet().removeIf(u -> !decisions.isCandidate(u));
+    nms.retainLinks(u -> decisions.isCandidate(u) || quarantine.contains(u));
+    locations.retainIf(u -> live.containsKey(u) || pendingVerify.contains(u) || decisions.isCandidate(u));
+
+    // Prune per-world, on region thread, honoring rate limits; the budget goes to the
+    // most expensive (then oldest) ghosts first
+    long decidedAt = System.currentTimeMillis();
+    Map<String, List<UUID>> selectedByWorld = new HashMap<>();
+    for (World w : worlds) {
+      List<UUID> candidates = ghostsByWorld.getOrDefault(w.getName(), List.of());
+      if (candidates.isEmpty()) continue;
+
+      List<GhostCandidate> picked = decisions.select(w.getName(), candidates,
+          id -> estimatedBytes.getOrDefault(id, 0L), decidedAt);
+      if (tracing) selectedByWorld.put(w.getName(), picked.stream().map(GhostCandidate::id).toList());
+      if (picked.isEmpty()) continue;
+
+      // One submission per region instead of one per candidate
+      Map<Long, List<Runnable>> batch = new HashMap<>();
+      for (GhostCandidate c : picked) {
+        batch.computeIfAbsent(lastChunkKey(c.id(), w), k -> new ArrayList<>()).add(() -> {
+          Reflectors.track(c.id(), null); // Track ghost candidates only
+          pruneOne(w, c.id(), "scan", c.estimatedBytes(), null);
+        });
       }
+      sched.submitBatch(w, batch);
+    }
+
+    if (tracing) {
+      List<ScanTrace.World> traced = new ArrayList<>();
+      ghostsByWorld.forEach((world, stable) -> {
+        Map<UUID, Long> bytes = new HashMap<>();
+        for (UUID id : stable) bytes.put(id, estimatedBytes.getOrDefault(id, 0L));
+        traced.add(new ScanTrace.World(world, cfg.profile(world).hysteresisCycles(), perWorldTracked.get(world),
+            hysteresisBefore.get(world), ghostsSeen.get(world), stable, bytes,
+            selectedByWorld.getOrDefault(world, List.of())));
+      });
+      tracer.recordScan(new ScanTrace(tracer.nextSeq(), lastGcTimestamp, decidedAt, cfg.maxUnlinksPerTick(),
+          cfg.maxUnlinksPerMinute(), limiterWindow, limiterUsed, liveSnap, traced));
     }
 
     return resultMap;
   }
 
-  private void pruneOne(World world, UUID id, Consumer<String> feedback) {
-    boolean inWorld;
+  private void exportReportSafely() {
+    try {
+      Path file = exportReport();
+      if (cfg.verbose()) plugin.getLogger().info("fleet report written to " + file);
+    } catch (Throwable t) {
+      // A throw would cancel the repeating task
+      plugin.getLogger().warning("fleet report failed: " + t.getClass().getSimpleName() + ": " + t.getMessage());
+    }
+  }
+
+  // Hands the current period to a report file; the next period starts now
+  private Path exportReport() throws IOException {
+    FleetReport r = fleet.drain(serverId(), plugin.getDescription().getVersion(), Bukkit.getVersion(),
+        System.currentTimeMillis());
+    return ReportWriter.write(r, plugin.getDataFolder().toPath().resolve("reports"));
+  }
+
+  private String serverId() {
+    String id = cfg.reportServerId();
+    if (id != null && !id.isBlank()) return id;
+    String host;
+    try {
+      host = InetAddress.getLocalHost().getHostName();
+    } catch (IOException e) {
+      host = "localhost";
+    }
+    return host + ":" + Bukkit.getPort();
+  }
+
+  private Path learnedOwnersFile() { return plugin.getDataFolder().toPath().resolve("learned-owners.txt"); }
+
+  private void loadLearnedOwners() {
+    Path file = learnedOwnersFile();
+    if (!Files.exists(file)) return;
+    try {
+      for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) if (!line.isBlank()) learnedOwners.add(line.strip());
+    } catch (IOException e) {
+      plugin.getLogger().warning("cannot read learned-owners.txt (" + e.getMessage() + "); starting with none learned");
+    }
+  }
+
+  // New owners are written off the region thread; the file appears under its name only once complete
+  private void learnOwners(List<String> owners) {
+    if (!learnedOwners.addAll(owners)) return;
+    analyzePool.execute(() -> {
+      Path file = learnedOwnersFile();
+      Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+      try {
+        Files.createDirectories(file.getParent());
+        Files.write(tmp, new TreeSet<>(learnedOwners), StandardCharsets.UTF_8);
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } catch (IOException | RuntimeException e) {
+        plugin.getLogger().warning("cannot write learned-owners.txt: " + e.getMessage());
+      }
+    });
+  }
+
+  private HistoryRing openHistory() {
+    if (cfg.historyRecords() <= 0) return null;
+    try {
+      return HistoryRing.open(plugin.getDataFolder().toPath().resolve("history.ring"), cfg.historyRecords(),
+          plugin.getLogger());
+    } catch (IOException | RuntimeException e) {
+      plugin.getLogger().warning("history disabled: cannot map history.ring (" + e.getMessage() + ")");
+      return null;
+    }
+  }
+
+  // Order-independent fingerprint of installed plugins and versions; a change marks an update in history
+  private int pluginsHash() {
+    int h = 0;
+    try {
+      for (Plugin p : plugin.getServer().getPluginManager().getPlugins()) {
+        h += (p.getName() + "@" + p.getDescription().getVersion()).hashCode();
+      }
+    } catch (Throwable ignored) {}
+    return h;
+  }
+
+  // Under parallel ticking other world threads may write tracker maps while we read them
+  private boolean optimisticReads() {
+    return platform.parallelTickingDetected() && cfg.optimisticUnderParallelTicking();
+  }
+
+  private void recordLocation(Entity ent) {
+    var loc = ent.getLocation();
+    locations.put(ent.getUniqueId(), ent.getWorld().getName(), loc.getBlockX() >> 4, loc.getBlockZ() >> 4,
+        ent.getType().name());
+  }
+
+  // Chunk the entity was last seen in, if it was in this world; spawn chunk otherwise
+  private long lastChunkKey(UUID id, World w) {
+    LocationIndex.Location loc = locations.get(id);
+    if (loc == null || !loc.world().equals(w.getName())) return SchedulerFacade.chunkKey(0, 0);
+    return SchedulerFacade.chunkKey(loc.chunkX(), loc.chunkZ());
+  }
+
+  // Outcomes go to the event sink; reply (command path only) additionally gets a text line
+  private void pruneOne(World world, UUID id, String source, long estBytes, Consumer<String> reply) {
+    Entity present;
     try {
       // Cheap, region-safe when already on the region thread
-      inWorld = world.getEntity(id) != null;
+      present = world.getEntity(id);
     } catch (Throwable t) {
       // If world API is guarded, fall back to assuming “not present”
-      inWorld = false;
+      present = null;
+    }
+
+    if (present != null) {
+      if (!live.containsKey(id)) recordLive(present); // its add was missed; no need to wait for the reconcile
+      tracer.recordUnlink(world.getName(), id, source, UnlinkTrace.Outcome.NOT_GHOST);
+      if (reply != null) reply.accept("Not a ghost: " + id + " inWorld=true");
+      return;
     }
 
-    boolean inTrackers = nms.isInTrackers(world, id);
-    if (inWorld || !inTrackers) return;
+    PluginConfig cfg = this.cfg;
+    LocationIndex.Location seen = locations.get(id); // read before a successful unlink forgets it
+    String type = seen != null ? seen.type() : null;
+
+    // Owner entries recorded at detection replace the verify walk: the detach re-checks each one
+    if (cfg.quarantineEnabled() && mutationAllowed(cfg, world)) {
+      List<String> linked = nms.linkOwners(id);
+      if (!linked.isEmpty() && quarantineOrAlert(cfg, world, id, source, type, estBytes, linked, reply)) return;
+    }
+
+    // One walk per outcome: the owner lookup doubles as the tracker check, the unlink records its owners
+    boolean dry = !mutationAllowed(cfg, world);
+    List<String> owners = new ArrayList<>();
+    Unlink result = dry ? Unlink.FAILED : nms.unlinkFromOwners(world, id, owners);
+    if (dry) owners = nms.findOwners(world, id, Math.max(1, cfg.logOwnerSample())).owners();
+    if (owners.isEmpty()) {
+      tracer.recordUnlink(world.getName(), id, source, UnlinkTrace.Outcome.NOT_GHOST);
+      if (reply != null) reply.accept("Not a ghost: " + id + " inWorld=false inTrackers=false");
+      return;
+    }
+    if (result == Unlink.UNLINKED && cfg.quarantineLearnOwners()) learnOwners(owners);
+    if (owners.size() > cfg.logOwnerSample()) owners = owners.subList(0, Math.max(0, cfg.logOwnerSample()));
 
-    if (cfg.dryRun() || (platform.parallelTickingDetected() && !cfg.allowUnderParallelTicking())) {
-      var owners = nms.findOwners(world, id, cfg.logOwnerSample());
-      feedback.accept("[DRY] Ghost " + id + " owners=" + owners);
+    if (dry) {
+      report(LogEvent.GHOST_DRY, source, world, id, owners, type, estBytes);
+      tracer.recordUnlink(world.getName(), id, source, UnlinkTrace.Outcome.DRY_RUN);
+      if (reply != null) reply.accept("[DRY] Ghost " + id + " owners=" + owners);
       return;
     }
 
-    boolean ok = nms.unlinkFromOwners(world, id);
-    var owners = nms.findOwners(world, id, cfg.logOwnerSample());
-    feedback.accept((ok ? "UNLINKED " : "FAILED ") + id + " owners=" + owners);
+    // A partial unlink changed the trackers too, but keeps the location: the next scan still finds the rest
+    if (result == Unlink.UNLINKED) locations.remove(id);
+    if (result != Unlink.FAILED) unlinksSinceScan.computeIfAbsent(world.getName(), k -> new AtomicInteger()).incrementAndGet();
+    LogEvent event = switch (result) {
+      case UNLINKED -> LogEvent.GHOST_UNLINKED;
+      case PARTIAL -> LogEvent.GHOST_UNLINK_PARTIAL;
+      case FAILED -> LogEvent.GHOST_UNLINK_FAILED;
+    };
+    UnlinkTrace.Outcome outcome = switch (result) {
+      case UNLINKED -> UnlinkTrace.Outcome.UNLINKED;
+      case PARTIAL -> UnlinkTrace.Outcome.PARTIAL;
+      case FAILED -> UnlinkTrace.Outcome.FAILED;
+    };
+    report(event, source, world, id, owners, type, estBytes);
+    tracer.recordUnlink(world.getName(), id, source, outcome);
+    if (reply != null) reply.accept(result + " " + id + " owners=" + owners);
+  }
+
+  private boolean mutationAllowed(PluginConfig cfg, World world) {
+    return !cfg.dryRun(world.getName()) && !(platform.parallelTickingDetected() && !cfg.allowUnderParallelTicking());
+  }
+
+  // Known owners are queued for a batched detach; an owner not seen before only raises an alert.
+  // With quarantine.learn-owners the ghost then takes the full unlink (false), whose success teaches the owner.
+  private boolean quarantineOrAlert(PluginConfig cfg, World world, UUID id, String source, String type, long estBytes,
+                                    List<String> owners, Consumer<String> reply) {
+    boolean learning = cfg.quarantineLearnOwners();
+    List<String> unknown = owners.stream()
+        .filter(o -> !cfg.knownOwner(o) && !(learning && learnedOwners.contains(o))).toList();
+    if (!unknown.isEmpty()) {
+      report(LogEvent.GHOST_UNKNOWN_OWNER, source, world, id, unknown, type, estBytes);
+      if (learning) {
+        if (reply != null) reply.accept("[ALERT] Ghost " + id + " held by unknown owners=" + unknown + "; taking the full unlink");
+        return false;
+      }
+      tracer.recordUnlink(world.getName(), id, source, UnlinkTrace.Outcome.UNKNOWN_OWNER);
+      if (reply != null) reply.accept("[ALERT] Ghost " + id + " held by unknown owners=" + unknown + "; not pruned");
+      return true;
+    }
+    if (quarantine.offer(new QuarantineQueue.Entry(world.getName(), id, source, type, estBytes, owners))) {
+      for (String owner : owners) events.emit(LogEvent.GHOST_QUARANTINED, source, world.getName(), id, owner, estBytes);
+    }
+    if (reply != null) reply.accept("QUARANTINED " + id + " owners=" + owners + "; detach pending");
+    return true;
+  }
+
+  // One batch per pass, skipped while the server is busy; each detach runs on the ghost's region
+  private void drainQuarantine() {
+    try {
+      if (quarantine.isEmpty()) return;
+      PluginConfig cfg = this.cfg;
+      double mspt = platform.averageTickMillis(plugin.getServer());
+      if (mspt > cfg.quarantineMaxMspt()) { quarantine.deferred(); return; } // -1 (no global tick) passes
+
+      Map<String, Map<Long, List<Runnable>>> byWorld = new HashMap<>();
+      for (QuarantineQueue.Entry q : quarantine.poll(Math.max(1, cfg.quarantineBatchSize()))) {
+        World w = Bukkit.getWorld(q.world());
+        if (w == null) { quarantine.done(q.id()); continue; }
+        byWorld.computeIfAbsent(q.world(), k -> new HashMap<>())
+            .computeIfAbsent(lastChunkKey(q.id(), w), k -> new ArrayList<>())
+            .add(() -> detachOne(w, q));
+      }
+      byWorld.forEach((name, batch) -> sched.submitBatch(Bukkit.getWorld(name), batch));
+    } catch (Throwable t) {
+      // A throw would cancel the repeating task
+      plugin.getLogger().warning("[GhostBuster] quarantine pass failed: " + t.getClass().getSimpleName() + ": " + t.getMessage());
+    }
+  }
+
+  private void detachOne(World w, QuarantineQueue.Entry q) {
+    try {
+      if (w.getEntity(q.id()) != null) {
+        tracer.recordUnlink(w.getName(), q.id(), q.source(), UnlinkTrace.Outcome.NOT_GHOST);
+        return;
+      }
+      // Reloaded into dry-run (or parallel ticking appeared) since it was queued: the normal path decides
+      if (!mutationAllowed(cfg, w)) { pruneOne(w, q.id(), q.source(), q.estBytes(), null); return; }
+
+      switch (nms.detach(w, q.id())) {
+        case DETACHED -> {
+          locations.remove(q.id());
+          unlinksSinceScan.computeIfAbsent(w.getName(), k -> new AtomicInteger()).incrementAndGet();
+          report(LogEvent.GHOST_DETACHED, q.source(), w, q.id(), q.owners(), q.type(), q.estBytes());
+          tracer.recordUnlink(w.getName(), q.id(), q.source(), UnlinkTrace.Outcome.UNLINKED);
+        }
+        case GONE -> tracer.recordUnlink(w.getName(), q.id(), q.source(), UnlinkTrace.Outcome.NOT_GHOST);
+        // An entry went stale (container replaced, id reused): the links are gone, so this takes the full walk
+        case STALE, NO_LINKS -> pruneOne(w, q.id(), q.source(), q.estBytes(), null);
+      }
+    } catch (Throwable t) {
+      plugin.getLogger().warning("quarantine detach failed for " + q.id() + ": " + t.getClass().getSimpleName() + ": " + t.getMessage());
+    } finally {
+      quarantine.done(q.id());
+    }
+  }
+
+  private void report(LogEvent event, String source, World world, UUID id, List<String> owners, String type, long estBytes) {
+    String w = world.getName();
+    if (owners.isEmpty()) { events.emit(event, source, w, id, null, estBytes); return; }
+    for (String owner : owners) {
+      events.emit(event, source, w, id, owner, estBytes);
+      fleet.ghost(owner, id, type, estBytes, event);
+    }
   }
 
   // Schedules a short delayed verify after entity removal to catch ghosts that would
   // otherwise be invisible between periodic scans. Runs on the entity's region thread.
   private void scheduleVerify(Entity entity, int delayTicks) {
-    if (platform.parallelTickingDetected() && !cfg.allowUnderParallelTicking()) {
+    if (platform.parallelTickingDetected() && !cfg.allowUnderParallelTicking() && !cfg.optimisticUnderParallelTicking()) {
       // Config says: do not mutate/verify under parallel ticking
       return;
     }
 
     final UUID id = entity.getUniqueId();
     final World w = entity.getWorld();
-    final int bx = entity.getLocation().getBlockX();
-    final int bz = entity.getLocation().getBlockZ();
+    if (!trackerFilter.mightBeTracked(w.getName(), id)) { // definite miss: nothing to verify
+      locations.remove(id);
+      return;
+    }
+    final int cx = entity.getLocation().getBlockX() >> 4;
+    final int cz = entity.getLocation().getBlockZ() >> 4;
 
     if (!pendingVerify.add(id)) return;
 
-    Runnable verifyTask = () -> sched.runAt(w, bx, bz, () -> {
+    // delay 0 means next tick; removals in the same tick share one region submission
+    verifyBatcher.submit(Math.max(1, delayTicks), w, cx, cz, () -> {
       try {
         // If the entity came back, abort
         if (w.getEntity(id) != null) return;
 
+        if (!trackerFilter.mightBeTracked(w.getName(), id)) return;
+
         // If trackers still reference it, prune (respects dry-run & PWT)
-        if (nms.isInTrackers(w, id)) {
-          pruneOne(w, id, msg -> plugin.getLogger().warning("verify: " + msg));
+        OwnerSearch search = nms.findOwners(w, id, 1);
+        if (search.found()) {
+          pruneOne(w, id, "verify", 0L, null);
+        } else if (search.provenAbsent()) {
+          trackerFilter.confirmedAbsent(w.getName(), id);
+          locations.remove(id);
         }
+        // Otherwise the walk was cut short or a container unreadable: keep its location for the scans to decide
       } catch (Throwable t) {
         plugin.getLogger().warning("verify-on-remove failed for " + id + ": "
             + t.getClass().getSimpleName() + ": " + t.getMessage());
@@ -252,12 +843,5 @@ public final class GhostBusterService implements Listener {
         pendingVerify.remove(id);
       }
     });
-
-    if (delayTicks <= 0) {
-      // next tick
-      sched.runLaterSync(1, verifyTask);
-    } else {
-      sched.runLaterSync(delayTicks, verifyTask);
-    }
   }
 }
@@ -0,0 +1,12 @@
+package com.splatage.ghostbuster.core;
+
+import java.util.Comparator;
+import java.util.UUID;
+
+/** A stable ghost waiting for unlink budget, ranked by estimated retained bytes, then age, then UUID. */
+public record GhostCandidate(UUID id, long estimatedBytes, int age) {
+  public static final Comparator<GhostCandidate> PRIORITY =
+      Comparator.comparingLong(GhostCandidate::estimatedBytes).reversed()
+          .thenComparing(Comparator.comparingInt(GhostCandidate::age).reversed())
+          .thenComparing(GhostCandidate::id); // total order, so replays pick the same ghosts
+}
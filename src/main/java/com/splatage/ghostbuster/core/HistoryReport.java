@@ -0,0 +1,103 @@
+package com.splatage.ghostbuster.core;
+
+import com.splatage.ghostbuster.util.LogFmt;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+
+/**
+ * Renders {@link HistoryRing} samples as a few chat lines: sparklines of stable ghosts
+ * and old-gen baseline, then one row per time bucket. Worlds are summed per scan first.
+ * A bucket in which the installed plugin set changed is flagged, to line up ghost growth
+ * with plugin updates.
+ */
+final class HistoryReport {
+  private static final char[] SPARK = { '▁', '▂', '▃', '▄', '▅', '▆', '▇', '█' };
+  private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("MM-dd HH:mm").withZone(ZoneId.systemDefault());
+
+  // One scan, summed over the worlds it sampled
+  private static final class Scan {
+    long at, live, tracked, candidates, stable, unlinks, nanos, oldGen = -1;
+    int pluginsHash;
+  }
+
+  private HistoryReport() {}
+
+  static List<String> render(List<HistoryRing.Sample> samples, String world, long sinceMillis, long nowMillis, int rows) {
+    List<String> out = new ArrayList<>();
+    Map<Long, Scan> byScan = new LinkedHashMap<>();
+    for (HistoryRing.Sample s : samples) {
+      Scan c = byScan.computeIfAbsent(s.epochMillis(), k -> new Scan());
+      c.at = s.epochMillis();
+      c.live += s.live(); c.tracked += s.tracked(); c.candidates += s.candidates();
+      c.stable += s.stable(); c.unlinks += s.unlinks(); c.nanos += s.scanNanos();
+      c.oldGen = s.oldGenBytes();
+      c.pluginsHash = s.pluginsHash();
+    }
+    out.add(LogFmt.of("history", world == null ? "all" : world)
+        .kv("since", TIME.format(Instant.ofEpochMilli(sinceMillis)))
+        .kv("scans", byScan.size())
+        .toString());
+    if (byScan.isEmpty()) return out;
+
+    List<Scan> scans = new ArrayList<>(byScan.values());
+    long span = Math.max(1, nowMillis - sinceMillis);
+    List<List<Scan>> buckets = new ArrayList<>();
+    for (int i = 0; i < rows; i++) buckets.add(new ArrayList<>());
+    for (Scan s : scans) {
+      int b = (int) Math.min(rows - 1, Math.max(0, (s.at - sinceMillis) * rows / span));
+      buckets.get(b).add(s);
+    }
+
+    double[] stable = new double[rows], oldGen = new double[rows];
+    for (int i = 0; i < rows; i++) {
+      stable[i] = buckets.get(i).stream().mapToLong(s -> s.stable).average().orElse(Double.NaN);
+      oldGen[i] = buckets.get(i).stream().filter(s -> s.oldGen >= 0).mapToLong(s -> s.oldGen).average().orElse(Double.NaN);
+    }
+    out.add("stable ghosts " + spark(stable));
+    out.add("old-gen after GC " + spark(oldGen));
+
+    int prevHash = scans.get(0).pluginsHash;
+    for (int i = 0; i < rows; i++) {
+      List<Scan> b = buckets.get(i);
+      if (b.isEmpty()) continue;
+      boolean pluginsChanged = false;
+      for (Scan s : b) {
+        if (s.pluginsHash != prevHash) pluginsChanged = true;
+        prevHash = s.pluginsHash;
+      }
+      Scan last = b.get(b.size() - 1);
+      LogFmt row = LogFmt.of("at", TIME.format(Instant.ofEpochMilli(b.get(0).at)))
+          .kv("scans", b.size())
+          .kv("live", avg(b, s -> s.live))
+          .kv("tracked", avg(b, s -> s.tracked))
+          .kv("ghosts", avg(b, s -> s.candidates))
+          .kv("stable", avg(b, s -> s.stable) + "/" + b.stream().mapToLong(s -> s.stable).max().orElse(0))
+          .kv("unlinks", b.stream().mapToLong(s -> s.unlinks).sum())
+          .kv("scanMs", String.format("%.1f", b.stream().mapToLong(s -> s.nanos).average().orElse(0) / 1e6))
+          .kv("oldGenMB", last.oldGen < 0 ? "?" : String.valueOf(last.oldGen >> 20));
+      if (pluginsChanged) row.kv("plugins", "changed");
+      out.add(row.toString());
+    }
+    return out;
+  }
+
+  private static long avg(List<Scan> b, java.util.function.ToLongFunction<Scan> f) {
+    return Math.round(b.stream().mapToLong(f).average().orElse(0));
+  }
+
+  // Scaled to the series' own range; blank where a bucket had no scans
+  private static String spark(double[] v) {
+    double min = Double.MAX_VALUE, max = -Double.MAX_VALUE;
+    for (double d : v) if (!Double.isNaN(d)) { min = Math.min(min, d); max = Math.max(max, d); }
+    StringBuilder sb = new StringBuilder(v.length);
+    for (double d : v) {
+      if (Double.isNaN(d)) { sb.append(' '); continue; }
+      int i = max > min ? (int) Math.round((d - min) / (max - min) * (SPARK.length - 1)) : 0;
+      sb.append(SPARK[i]);
+    }
+    return sb.toString();
+  }
+}
@@ -0,0 +1,137 @@
+package com.splatage.ghostbuster.core;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Fixed-size ring of per-world scan samples in a memory-mapped file, so ghost trends
+ * survive restarts without an external time-series store. An append is a few puts into
+ * the mapping plus a header update; the OS writes pages back. Once full, the oldest
+ * samples are overwritten.
+ *
+ * <pre>
+ * header (32 bytes): magic:int version:int recordBytes:int capacity:int appended:long reserved:long
+ * record (72 bytes): epochMillis:long world:byte[24] (length-prefixed UTF-8) live:int tracked:int
+ *                    candidates:int stable:int unlinks:int pluginsHash:int scanNanos:long oldGenBytes:long
+ * </pre>
+ */
+final class HistoryRing implements AutoCloseable {
+  private static final int MAGIC = 0x47424853; // "GBHS"
+  private static final int VERSION = 1;
+  private static final int HEADER = 32;
+  private static final int RECORD = 72;
+  private static final int WORLD_BYTES = 24;
+
+  record Sample(long epochMillis, String world, int live, int tracked, int candidates, int stable,
+                int unlinks, int pluginsHash, long scanNanos, long oldGenBytes) {}
+
+  private final FileChannel channel;
+  private final MappedByteBuffer map;
+  private final int capacity;
+  private long appended; // guarded by this
+
+  private HistoryRing(FileChannel channel, MappedByteBuffer map, int capacity, long appended) {
+    this.channel = channel;
+    this.map = map;
+    this.capacity = capacity;
+    this.appended = appended;
+  }
+
+  /** Opens or creates the ring; a file with another layout or capacity is moved aside to {@code <name>.old}. */
+  static HistoryRing open(Path file, int capacity, Logger log) throws IOException {
+    Files.createDirectories(file.toAbsolutePath().getParent());
+    long bytes = HEADER + (long) capacity * RECORD;
+    if (Files.exists(file) && !compatible(file, capacity, bytes)) {
+      Path old = file.resolveSibling(file.getFileName() + ".old");
+      Files.move(file, old, StandardCopyOption.REPLACE_EXISTING);
+      log.info("history: " + file.getFileName() + " has another layout or capacity; moved to " + old.getFileName());
+    }
+
+    FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    try {
+      MappedByteBuffer map = ch.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+      long appended;
+      if (map.getInt(0) == MAGIC) {
+        appended = map.getLong(16);
+      } else {
+        map.putInt(0, MAGIC).putInt(4, VERSION).putInt(8, RECORD).putInt(12, capacity).putLong(16, 0L);
+        appended = 0L;
+      }
+      return new HistoryRing(ch, map, capacity, appended);
+    } catch (IOException | RuntimeException e) {
+      ch.close();
+      throw e;
+    }
+  }
+
+  private static boolean compatible(Path file, int capacity, long bytes) throws IOException {
+    if (Files.size(file) != bytes) return false;
+    try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+      ByteBuffer h = ByteBuffer.allocate(16);
+      while (h.hasRemaining() && ch.read(h) >= 0) { }
+      h.flip();
+      return h.remaining() == 16 && h.getInt() == MAGIC && h.getInt() == VERSION
+          && h.getInt() == RECORD && h.getInt() == capacity;
+    }
+  }
+
+  synchronized void append(Sample s) {
+    int at = HEADER + (int) (appended % capacity) * RECORD;
+    map.putLong(at, s.epochMillis());
+    byte[] name = nameBytes(s.world());
+    int n = name.length;
+    map.put(at + 8, (byte) n);
+    for (int i = 0; i < WORLD_BYTES - 1; i++) map.put(at + 9 + i, i < n ? name[i] : 0);
+    map.putInt(at + 32, s.live()).putInt(at + 36, s.tracked()).putInt(at + 40, s.candidates())
+        .putInt(at + 44, s.stable()).putInt(at + 48, s.unlinks()).putInt(at + 52, s.pluginsHash())
+        .putLong(at + 56, s.scanNanos()).putLong(at + 64, s.oldGenBytes());
+    appended++;
+    map.putLong(16, appended); // after the record, so a crash mid-append loses at most that record
+  }
+
+  /** Samples at or after {@code sinceMillis}, oldest first; {@code world} null for all worlds. */
+  synchronized List<Sample> read(String world, long sinceMillis) {
+    long count = Math.min(appended, capacity);
+    List<Sample> out = new ArrayList<>();
+    byte[] want = world == null ? null : nameBytes(world);
+    byte[] name = new byte[WORLD_BYTES - 1];
+    for (long i = appended - count; i < appended; i++) {
+      int at = HEADER + (int) (i % capacity) * RECORD;
+      long t = map.getLong(at);
+      if (t < sinceMillis) continue;
+      int n = Math.min(map.get(at + 8) & 0xFF, name.length);
+      map.get(at + 9, name, 0, n);
+      // Compared as stored bytes: long names are kept truncated
+      if (want != null && !Arrays.equals(want, 0, want.length, name, 0, n)) continue;
+      String w = new String(name, 0, n, StandardCharsets.UTF_8);
+      out.add(new Sample(t, w, map.getInt(at + 32), map.getInt(at + 36), map.getInt(at + 40),
+          map.getInt(at + 44), map.getInt(at + 48), map.getInt(at + 52), map.getLong(at + 56), map.getLong(at + 64)));
+    }
+    return out;
+  }
+
+  private static byte[] nameBytes(String world) {
+    byte[] b = world.getBytes(StandardCharsets.UTF_8);
+    return b.length <= WORLD_BYTES - 1 ? b : Arrays.copyOf(b, WORLD_BYTES - 1);
+  }
+
+  synchronized long appended() { return appended; }
+
+  int capacity() { return capacity; }
+
+  @Override public synchronized void close() {
+    try { map.force(); } catch (Throwable ignored) {}
+    try { channel.close(); } catch (IOException ignored) {}
+  }
+}
@@ -0,0 +1,130 @@
+package com.splatage.ghostbuster.core;
+
+import com.splatage.ghostbuster.platform.SchedulerFacade;
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.plugin.Plugin;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Fills the live entity index chunk by chunk over many ticks instead of one
+ * {@code getEntities()} sweep of every world on the global thread. Each chunk is
+ * read on the thread that owns it, a bounded number of chunks per tick and
+ * within a per-tick time budget. Add/remove events keep flowing into the index
+ * meanwhile; because a chunk is read on its owning thread, an event for an
+ * entity in that chunk is always ordered before or after the read, never
+ * interleaved with it.
+ */
+final class LiveIndexBootstrap {
+  private record ChunkRef(World world, int x, int z) {}
+
+  // Shared by the tasks of one submitted batch; the first task to run starts the clock
+  private static final class Budget {
+    private final long nanos;
+    private volatile long deadline;
+    Budget(long nanos) { this.nanos = nanos; }
+    boolean exhausted() {
+      long now = System.nanoTime();
+      if (deadline == 0L) { deadline = now + nanos; return false; }
+      return now > deadline;
+    }
+  }
+
+  private final Plugin plugin;
+  private final SchedulerFacade sched;
+  private final Consumer<Entity> record;
+  private final int chunksPerTick;
+  private final long budgetNanos;
+
+  private final Queue<ChunkRef> pending = new ConcurrentLinkedQueue<>();
+  // Chunks read (or given up on); a chunk re-queued for the next tick is counted once, when read
+  private final AtomicInteger done = new AtomicInteger();
+  private volatile int total = -1; // -1 until chunk enumeration has run
+  private volatile boolean complete;
+  private volatile boolean cancelled;
+
+  LiveIndexBootstrap(Plugin plugin, SchedulerFacade sched, Consumer<Entity> record,
+                     int chunksPerTick, int tickBudgetMs) {
+    this.plugin = plugin;
+    this.sched = sched;
+    this.record = record;
+    this.chunksPerTick = Math.max(1, chunksPerTick);
+    this.budgetNanos = Math.max(1, tickBudgetMs) * 1_000_000L;
+  }
+
+  void start() {
+    sched.runGlobalSync(() -> {
+      long t0 = System.nanoTime();
+      for (World w : Bukkit.getWorlds()) enumerate(w);
+      total = pending.size();
+      plugin.getLogger().info("Live index bootstrap: " + total + " chunks queued in "
+          + (System.nanoTime() - t0) / 1_000_000L + "ms");
+      step();
+    });
+  }
+
+  void cancel() { cancelled = true; }
+
+  boolean complete() { return complete; }
+
+  String progress() { return done.get() + "/" + Math.max(0, total); }
+
+  private void enumerate(World w) {
+    try {
+      for (Chunk c : w.getLoadedChunks()) pending.add(new ChunkRef(w, c.getX(), c.getZ()));
+    } catch (Throwable t) {
+      // Chunk list not readable here: fall back to the one-shot sweep for this world
+      plugin.getLogger().warning("bootstrap: cannot list chunks of " + w.getName()
+          + " (" + t.getClass().getSimpleName() + "); reading its entities in one pass");
+      try {
+        for (Entity e : w.getEntities()) record.accept(e);
+      } catch (Throwable t2) {
+        plugin.getLogger().warning("bootstrap: entity sweep failed in " + w.getName()
+            + "; relying on add/remove events only");
+      }
+    }
+  }
+
+  private void step() {
+    if (cancelled) return;
+    // Not "pending empty and nothing in flight": a task can re-queue its chunk between those two reads
+    if (done.get() >= total) {
+      complete = true;
+      plugin.getLogger().info("Live index bootstrap complete: " + done.get() + " chunks");
+      return;
+    }
+    if (!pending.isEmpty()) {
+      Budget budget = new Budget(budgetNanos);
+      Map<World, Map<Long, List<Runnable>>> batch = new HashMap<>();
+      for (int i = 0; i < chunksPerTick; i++) {
+        ChunkRef ref = pending.poll();
+        if (ref == null) break;
+        batch.computeIfAbsent(ref.world(), w -> new HashMap<>())
+            .computeIfAbsent(SchedulerFacade.chunkKey(ref.x(), ref.z()), k -> new ArrayList<>())
+            .add(() -> readChunk(ref, budget));
+      }
+      batch.forEach(sched::submitBatch);
+    }
+    sched.runLaterSync(1, this::step);
+  }
+
+  private void readChunk(ChunkRef ref, Budget budget) {
+    try {
+      if (cancelled) return;
+      if (budget.exhausted()) { pending.add(ref); return; } // over this tick's budget: next tick
+      World w = ref.world();
+      if (w.isChunkLoaded(ref.x(), ref.z())) {
+        for (Entity e : w.getChunkAt(ref.x(), ref.z()).getEntities()) record.accept(e);
+      }
+      done.incrementAndGet();
+    } catch (Throwable t) {
+      done.incrementAndGet();
+    }
+  }
+}
@@ -0,0 +1,224 @@
+package com.splatage.ghostbuster.core;
+
+import com.splatage.ghostbuster.platform.SchedulerFacade;
+import com.splatage.ghostbuster.util.EventSink;
+import com.splatage.ghostbuster.util.LogEvent;
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.plugin.Plugin;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.IntSupplier;
+
+/**
+ * Repairs drift between the live index and the worlds: entities whose add or remove
+ * event was missed (start-up race, a cancelled event, a reload). Each pass takes the
+ * next few chunks of every world in a rotation and, on the chunk's own thread, compares
+ * the digest of its entities with the index's digest for it. Chunks in sync cost one
+ * entity listing; only a mismatch reads the index entries:
+ *
+ * - entities in the chunk but not live are indexed (missed add), entities indexed under
+ *   another chunk are re-counted here (they moved);
+ * - if the chunk still differs, the index counts entries that are not there. Next pass
+ *   looks those up by UUID: found means it moved and is re-counted where it is. Not
+ *   found proves little on Folia, where an entity that moved to another region is not
+ *   visible from this one, so the entry is only dropped (a missed remove) if it is
+ *   still missing after the rotation has gone once round every chunk: an entity that
+ *   moved is re-counted by its new chunk's check before then.
+ */
+final class LiveIndexReconciler {
+  private final Plugin plugin;
+  private final SchedulerFacade sched;
+  private final ConcurrentMap<UUID, String> live;
+  private final LocationIndex locations;
+  private final ChunkDigest digest;
+  private final Consumer<Entity> index;
+  private final Consumer<UUID> drop;
+  private final BooleanSupplier ready;
+  private final IntSupplier chunksPerPass;
+  private final EventSink events;
+
+  // Rotation position per world: the last chunk key checked
+  private final Map<String, Long> cursor = new ConcurrentHashMap<>();
+  // Chunks still differing after their repair; their entries are looked up next pass
+  private final ConcurrentMap<String, Set<Long>> stale = new ConcurrentHashMap<>();
+  // Completed rotations per world, and the rotation in which each entry was first not found
+  private final Map<String, Long> laps = new ConcurrentHashMap<>();
+  private final ConcurrentMap<UUID, Long> unseen = new ConcurrentHashMap<>();
+
+  private final AtomicLong checked = new AtomicLong();
+  private final AtomicLong repaired = new AtomicLong();
+  private final AtomicLong added = new AtomicLong();
+  private final AtomicLong dropped = new AtomicLong();
+  private volatile boolean cancelled;
+
+  LiveIndexReconciler(Plugin plugin, SchedulerFacade sched, ConcurrentMap<UUID, String> live, LocationIndex locations,
+                      ChunkDigest digest, Consumer<Entity> index, Consumer<UUID> drop, BooleanSupplier ready,
+                      IntSupplier chunksPerPass, EventSink events) {
+    this.plugin = plugin;
+    this.sched = sched;
+    this.live = live;
+    this.locations = locations;
+    this.digest = digest;
+    this.index = index;
+    this.drop = drop;
+    this.ready = ready;
+    this.chunksPerPass = chunksPerPass;
+    this.events = events;
+  }
+
+  void cancel() { cancelled = true; }
+
+  /** Chunks compared, chunks rebuilt, missed adds and missed removes repaired since start-up. */
+  String summary() {
+    return checked.get() + "/" + repaired.get() + "/+" + added.get() + "/-" + dropped.get();
+  }
+
+  /** One pass; runs on the analyzer. Stale chunk entries are gathered here, the chunk reads on their regions. */
+  void pass() {
+    try {
+      if (cancelled || !ready.getAsBoolean()) return;
+      unseen.keySet().removeIf(id -> !live.containsKey(id)); // removed by an event since
+      Map<String, Map<Long, List<UUID>>> members = staleMembers();
+      sched.runGlobalSync(() -> plan(members));
+    } catch (Throwable t) {
+      // A throw would cancel the repeating task
+      plugin.getLogger().warning("[GhostBuster] reconcile failed: " + t.getClass().getSimpleName() + ": " + t.getMessage());
+    }
+  }
+
+  // Entries the index still counts in chunks that differed after their repair; only those chunks are read
+  private Map<String, Map<Long, List<UUID>>> staleMembers() {
+    Map<String, Map<Long, List<UUID>>> out = new HashMap<>();
+    for (String world : stale.keySet()) {
+      Set<Long> keys = stale.remove(world);
+      if (keys == null) continue;
+      for (long key : keys) {
+        List<UUID> ids = digest.members(world, key);
+        if (!ids.isEmpty()) out.computeIfAbsent(world, k -> new HashMap<>()).put(key, ids);
+      }
+    }
+    return out;
+  }
+
+  private void plan(Map<String, Map<Long, List<UUID>>> members) {
+    if (cancelled) return;
+    int perWorld = Math.max(1, chunksPerPass.getAsInt());
+    for (World w : Bukkit.getWorlds()) {
+      String name = w.getName();
+      Map<Long, List<Runnable>> byChunk = new HashMap<>();
+      members.getOrDefault(name, Map.of()).forEach((key, ids) -> {
+        for (UUID id : ids) byChunk.computeIfAbsent(key, k -> new ArrayList<>()).add(() -> checkMember(w, key, id));
+      });
+
+      long[] keys = rotation(w);
+      if (keys.length > 0) {
+        Long after = cursor.get(name);
+        int start = 0;
+        if (after != null) {
+          int i = Arrays.binarySearch(keys, after);
+          start = i >= 0 ? i + 1 : -i - 1;
+        }
+        int n = Math.min(perWorld, keys.length);
+        if (after != null && start + n >= keys.length) laps.merge(name, 1L, Long::sum); // wrapped round
+        long key = 0L;
+        for (int i = 0; i < n; i++) {
+          key = keys[(start + i) % keys.length];
+          long k = key;
+          byChunk.computeIfAbsent(k, x -> new ArrayList<>()).add(() -> checkChunk(w, k));
+        }
+        cursor.put(name, key);
+      }
+      if (!byChunk.isEmpty()) sched.submitBatch(w, byChunk);
+    }
+  }
+
+  // Loaded chunks plus chunks the index counts entries in (those may have unloaded with a missed remove), sorted
+  private long[] rotation(World w) {
+    long[] counted = digest.chunkKeys(w.getName());
+    Chunk[] loaded;
+    try {
+      loaded = w.getLoadedChunks();
+    } catch (Throwable t) {
+      loaded = new Chunk[0];
+    }
+    long[] keys = Arrays.copyOf(counted, counted.length + loaded.length);
+    for (int i = 0; i < loaded.length; i++) {
+      keys[counted.length + i] = SchedulerFacade.chunkKey(loaded[i].getX(), loaded[i].getZ());
+    }
+    Arrays.sort(keys);
+    int n = 0;
+    for (int i = 0; i < keys.length; i++) if (n == 0 || keys[i] != keys[n - 1]) keys[n++] = keys[i];
+    return Arrays.copyOf(keys, n);
+  }
+
+  // On the chunk's thread, so its entities cannot be added or removed while they are read
+  private void checkChunk(World w, long key) {
+    try {
+      if (cancelled) return;
+      String name = w.getName();
+      int x = (int) key, z = (int) (key >>> 32);
+      Entity[] entities = w.isChunkLoaded(x, z) ? w.getChunkAt(x, z).getEntities() : new Entity[0];
+      ChunkDigest.Digest actual = ChunkDigest.Digest.EMPTY;
+      for (Entity e : entities) actual = actual.plus(e.getUniqueId());
+      checked.incrementAndGet();
+      if (actual.equals(digest.get(name, key))) return;
+
+      repaired.incrementAndGet();
+      int missed = 0;
+      for (Entity e : entities) {
+        UUID id = e.getUniqueId();
+        if (live.containsKey(id)) {
+          unseen.remove(id);
+          LocationIndex.Location loc = locations.get(id);
+          if (loc != null && loc.world().equals(name) && SchedulerFacade.chunkKey(loc.chunkX(), loc.chunkZ()) == key) continue;
+        } else {
+          missed++;
+        }
+        index.accept(e); // missed add, or moved here: (re)count it in this chunk
+      }
+      if (missed > 0) {
+        added.addAndGet(missed);
+        events.emit(LogEvent.LIVE_MISSED_ADD, "reconcile", name, null, null, missed);
+      }
+      if (!actual.equals(digest.get(name, key))) stale.computeIfAbsent(name, k -> ConcurrentHashMap.newKeySet()).add(key);
+    } catch (Throwable ignored) {
+      // Chunk not readable here this time; the rotation comes back to it
+    }
+  }
+
+  // An entry the index counts in a chunk that does not hold it: gone, or moved elsewhere
+  private void checkMember(World w, long key, UUID id) {
+    try {
+      if (cancelled) return;
+      LocationIndex.Location loc = locations.get(id);
+      if (!live.containsKey(id) || loc == null || SchedulerFacade.chunkKey(loc.chunkX(), loc.chunkZ()) != key) {
+        unseen.remove(id); // gone, or re-counted meanwhile
+        return;
+      }
+      Entity e = w.getEntity(id);
+      if (e != null) {
+        unseen.remove(id);
+        index.accept(e);
+        return;
+      }
+      // Not visible from this region: gone only if a whole rotation has not found it since
+      long lap = laps.getOrDefault(w.getName(), 0L);
+      Long first = unseen.putIfAbsent(id, lap);
+      if (first == null || lap < first + 2) return; // +2: the lap it was first missed in may have been half over
+      unseen.remove(id);
+      drop.accept(id);
+      dropped.incrementAndGet();
+      events.emit(LogEvent.LIVE_MISSED_REMOVE, "reconcile", w.getName(), id, null, 1);
+    } catch (Throwable ignored) {
+      // World lookup guarded off this region; retried when the rotation next finds the chunk stale
+    }
+  }
+}
@@ -0,0 +1,166 @@
+package com.splatage.ghostbuster.core;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+
+/**
+ * Last known (world, chunk) and entity type per entity UUID, so verify and prune can be
+ * sent to the region that owned the entity when it was last seen, and reports can name
+ * what a ghost was. Stored in striped open-addressing tables of primitive arrays (two
+ * longs of UUID, one long chunk key, one int each of world and type id) to stay compact
+ * with hundreds of thousands of entities.
+ */
+final class LocationIndex {
+  private static final int STRIPES = 64;
+
+  record Location(String world, int chunkX, int chunkZ, String type) {}
+
+  private final Stripe[] stripes = new Stripe[STRIPES];
+  private final Names worlds = new Names();
+  private final Names types = new Names();
+
+  LocationIndex() {
+    for (int i = 0; i < STRIPES; i++) stripes[i] = new Stripe();
+  }
+
+  void put(UUID id, String world, int chunkX, int chunkZ, String type) {
+    int wid = worlds.id(world);
+    int tid = type == null ? 0 : types.id(type);
+    long h = hash(id);
+    stripe(h).put(id.getMostSignificantBits(), id.getLeastSignificantBits(), h, wid, tid, chunkKey(chunkX, chunkZ));
+  }
+
+  Location get(UUID id) {
+    long h = hash(id);
+    long[] out = new long[3];
+    if (!stripe(h).get(id.getMostSignificantBits(), id.getLeastSignificantBits(), h, out)) return null;
+    long key = out[1];
+    return new Location(worlds.name((int) out[0]), (int) key, (int) (key >>> 32), types.name((int) out[2]));
+  }
+
+  void remove(UUID id) {
+    long h = hash(id);
+    stripe(h).remove(id.getMostSignificantBits(), id.getLeastSignificantBits(), h);
+  }
+
+  /** Drops every entry whose UUID fails {@code keep}; one stripe locked at a time. */
+  void retainIf(Predicate<UUID> keep) {
+    for (Stripe s : stripes) s.retainIf(keep);
+  }
+
+  int size() {
+    int n = 0;
+    for (Stripe s : stripes) n += s.size();
+    return n;
+  }
+
+  // Interned world / type names by small id; id 0 means none
+  private static final class Names {
+    private final List<String> names = new CopyOnWriteArrayList<>();
+    private final ConcurrentMap<String, Integer> ids = new ConcurrentHashMap<>();
+
+    int id(String name) {
+      Integer id = ids.get(name);
+      if (id != null) return id;
+      synchronized (names) {
+        return ids.computeIfAbsent(name, n -> { names.add(n); return names.size(); });
+      }
+    }
+
+    String name(int id) { return id == 0 ? null : names.get(id - 1); }
+  }
+
+  private Stripe stripe(long h) { return stripes[(int) (h >>> 58) & (STRIPES - 1)]; }
+
+  private static long chunkKey(int x, int z) { return ((long) z << 32) | (x & 0xFFFFFFFFL); }
+
+  private static long hash(UUID u) { return hash(u.getMostSignificantBits(), u.getLeastSignificantBits()); }
+
+  private static long hash(long hi, long lo) {
+    long z = hi ^ Long.rotateLeft(lo, 32);
+    z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+    z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+    return z ^ (z >>> 33);
+  }
+
+  /** Linear probing with backward-shift deletion; world id 0 marks an empty slot. */
+  private static final class Stripe {
+    private long[] msb = new long[16], lsb = new long[16], chunk = new long[16];
+    private int[] world = new int[16], type = new int[16];
+    private int size;
+
+    synchronized void put(long hi, long lo, long h, int wid, int tid, long key) {
+      if ((size + 1) * 4 > world.length * 3) grow();
+      int mask = world.length - 1;
+      for (int i = (int) h & mask; ; i = (i + 1) & mask) {
+        if (world[i] == 0) {
+          msb[i] = hi; lsb[i] = lo; world[i] = wid; type[i] = tid; chunk[i] = key; size++;
+          return;
+        }
+        if (msb[i] == hi && lsb[i] == lo) { world[i] = wid; type[i] = tid; chunk[i] = key; return; }
+      }
+    }
+
+    synchronized boolean get(long hi, long lo, long h, long[] out) {
+      int i = find(hi, lo, h);
+      if (i < 0) return false;
+      out[0] = world[i];
+      out[1] = chunk[i];
+      out[2] = type[i];
+      return true;
+    }
+
+    synchronized void remove(long hi, long lo, long h) {
+      int i = find(hi, lo, h);
+      if (i >= 0) delete(i);
+    }
+
+    synchronized void retainIf(Predicate<UUID> keep) {
+      for (int i = 0; i < world.length; ) {
+        // delete() shifts a later entry into slot i, so only advance when i is kept or empty
+        if (world[i] != 0 && !keep.test(new UUID(msb[i], lsb[i]))) delete(i);
+        else i++;
+      }
+    }
+
+    synchronized int size() { return size; }
+
+    private int find(long hi, long lo, long h) {
+      int mask = world.length - 1;
+      for (int i = (int) h & mask; world[i] != 0; i = (i + 1) & mask) {
+        if (msb[i] == hi && lsb[i] == lo) return i;
+      }
+      return -1;
+    }
+
+    private void delete(int i) {
+      int mask = world.length - 1;
+      int hole = i;
+      for (int j = (i + 1) & mask; world[j] != 0; j = (j + 1) & mask) {
+        int home = (int) hash(msb[j], lsb[j]) & mask;
+        // Move j back into the hole unless its home lies cyclically in (hole, j]
+        boolean stays = hole <= j ? (hole < home && home <= j) : (hole < home || home <= j);
+        if (!stays) {
+          msb[hole] = msb[j]; lsb[hole] = lsb[j]; world[hole] = world[j]; type[hole] = type[j]; chunk[hole] = chunk[j];
+          hole = j;
+        }
+      }
+      world[hole] = 0;
+      size--;
+    }
+
+    private void grow() {
+      long[] oMsb = msb, oLsb = lsb, oChunk = chunk;
+      int[] oWorld = world, oType = type;
+      int cap = oWorld.length * 2;
+      msb = new long[cap]; lsb = new long[cap]; chunk = new long[cap]; world = new int[cap]; type = new int[cap];
+      size = 0;
+      for (int i = 0; i < oWorld.length; i++) {
+        if (oWorld[i] != 0) put(oMsb[i], oLsb[i], hash(oMsb[i], oLsb[i]), oWorld[i], oType[i], oChunk[i]);
+      }
+    }
+  }
+}
@@ -0,0 +1,48 @@
+package com.splatage.ghostbuster.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Confirmed ghosts waiting to be detached through their recorded owner entries. Filled
+ * from region threads as scans select ghosts; drained in small batches by the analyzer
+ * while ticks are cheap. A ghost is queued at most once until its detach has run.
+ */
+final class QuarantineQueue {
+  record Entry(String world, UUID id, String source, String type, long estBytes, List<String> owners) {}
+
+  private final Queue<Entry> queue = new ConcurrentLinkedQueue<>();
+  private final Set<UUID> queued = ConcurrentHashMap.newKeySet();
+  private final AtomicLong deferredPasses = new AtomicLong();
+
+  boolean offer(Entry e) {
+    if (!queued.add(e.id())) return false;
+    queue.add(e);
+    return true;
+  }
+
+  List<Entry> poll(int max) {
+    List<Entry> out = new ArrayList<>(Math.min(max, 64));
+    for (Entry e; out.size() < max && (e = queue.poll()) != null; ) out.add(e);
+    return out;
+  }
+
+  /** Ends {@code id}'s turn, whatever the detach did; it may be queued again. */
+  void done(UUID id) { queued.remove(id); }
+
+  boolean contains(UUID id) { return queued.contains(id); }
+
+  boolean isEmpty() { return queue.isEmpty(); }
+
+  int size() { return queued.size(); }
+
+  void deferred() { deferredPasses.incrementAndGet(); }
+
+  long deferredPasses() { return deferredPasses.get(); }
+}
@@ -1,22 +1,45 @@
 package com.splatage.ghostbuster.core;
 
+import java.util.function.LongSupplier;
+
 public final class RateLimiter {
   private final int maxPerTick;
   private final int maxPerMinute;
+  private final LongSupplier clockMillis;
   private long minuteWindowStart = 0L;
   private int minuteCount = 0;
 
   public RateLimiter(int maxPerTick, int maxPerMinute) {
+    this(maxPerTick, maxPerMinute, System::currentTimeMillis);
+  }
+
+  /** With an injected millisecond clock, e.g. recorded timestamps when replaying a trace. */
+  public RateLimiter(int maxPerTick, int maxPerMinute, LongSupplier clockMillis) {
     this.maxPerTick = Math.max(1, maxPerTick);
     this.maxPerMinute = Math.max(1, maxPerMinute);
+    this.clockMillis = clockMillis;
   }
 
   public int permit(int requested) {
-    long nowMin = System.currentTimeMillis() / 60000L;
+    return permit(requested, clockMillis.getAsLong());
+  }
+
+  public int permit(int requested, long nowMillis) {
+    long nowMin = nowMillis / 60000L;
     if (nowMin != minuteWindowStart) { minuteWindowStart = nowMin; minuteCount = 0; }
     int remainingMinute = Math.max(0, maxPerMinute - minuteCount);
     int allowed = Math.min(Math.min(requested, maxPerTick), remainingMinute);
     minuteCount += allowed;
     return allowed;
   }
+
+  public long windowStart() { return minuteWindowStart; }
+
+  public int used() { return minuteCount; }
+
+  /** Resumes from a recorded minute window and the permits already granted in it. */
+  public void restore(long windowStart, int used) {
+    this.minuteWindowStart = windowStart;
+    this.minuteCount = used;
+  }
 }
@@ -0,0 +1,59 @@
+package com.splatage.ghostbuster.core;
+
+import com.splatage.ghostbuster.platform.SchedulerFacade;
+import org.bukkit.World;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Coalesces delayed per-entity work (verify-on-remove) into one
+ * {@link SchedulerFacade#submitBatch} per world per tick instead of two
+ * scheduler hops per task. Work submitted within the same tick window with
+ * the same delay shares a flush, grouped by the chunk it belongs to.
+ */
+final class RegionBatcher {
+  private static final long TICK_NANOS = 50_000_000L;
+
+  private record Window(long tick, long delay) {}
+
+  private static final class Batch {
+    final Map<World, Map<Long, List<Runnable>>> work = new HashMap<>();
+    boolean flushed;
+  }
+
+  private final SchedulerFacade sched;
+  private final ConcurrentMap<Window, Batch> open = new ConcurrentHashMap<>();
+
+  RegionBatcher(SchedulerFacade sched) { this.sched = sched; }
+
+  void submit(long delayTicks, World world, int chunkX, int chunkZ, Runnable task) {
+    Window key = new Window(System.nanoTime() / TICK_NANOS, Math.max(1, delayTicks));
+    Batch b = open.computeIfAbsent(key, k -> {
+      sched.runLaterSync(k.delay(), () -> flush(k));
+      return new Batch();
+    });
+    synchronized (b) {
+      if (!b.flushed) {
+        b.work.computeIfAbsent(world, w -> new HashMap<>())
+            .computeIfAbsent(SchedulerFacade.chunkKey(chunkX, chunkZ), c -> new ArrayList<>())
+            .add(task);
+        return;
+      }
+    }
+    // Lost the race with flush: the window is gone, submit on its own
+    sched.runAt(world, chunkX << 4, chunkZ << 4, task);
+  }
+
+  private void flush(Window key) {
+    Batch b = open.remove(key);
+    if (b == null) return;
+    Map<World, Map<Long, List<Runnable>>> work;
+    synchronized (b) {
+      b.flushed = true;
+      work = b.work;
+    }
+    work.forEach(sched::submitBatch);
+  }
+}
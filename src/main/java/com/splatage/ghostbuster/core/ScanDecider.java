@@ -0,0 +1,23 @@
+package com.splatage.ghostbuster.core;
+
+import java.util.*;
+import java.util.function.ToLongFunction;
+
+/**
+ * The pure decisions of a scan: which tracked UUIDs are ghosts, which have stayed
+ * ghosts long enough, and which of those get the unlink budget. Free of server types
+ * so recorded traces can be replayed offline against alternative implementations.
+ */
+public interface ScanDecider {
+  /** Tracked UUIDs with no live entity. */
+  List<UUID> ghosts(Collection<UUID> tracked, Set<UUID> live);
+
+  /** Updates the world's hysteresis with this scan's ghosts; returns those seen in at least {@code minCycles} scans. */
+  List<UUID> stable(String world, List<UUID> ghosts, int minCycles);
+
+  /** Takes unlink budget at {@code nowMillis} and returns the stable ghosts it covers, highest priority first. */
+  List<GhostCandidate> select(String world, List<UUID> stable, ToLongFunction<UUID> estimatedBytes, long nowMillis);
+
+  /** Seeds hysteresis counters and rate-limit usage, e.g. from the first scan of a trace. */
+  void restore(Map<String, Map<UUID, Integer>> hysteresis, long limiterWindow, int limiterUsed);
+}
@@ -0,0 +1,74 @@
+package com.splatage.ghostbuster.core;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+
+/** Reference {@link ScanDecider}: per-world {@link SnapshotDiff} hysteresis and one shared {@link RateLimiter}. */
+public final class ScanDecisions implements ScanDecider {
+  private volatile RateLimiter limiter;
+  private final Map<String, SnapshotDiff> history = new ConcurrentHashMap<>();
+
+  public ScanDecisions(int maxPerTick, int maxPerMinute) {
+    this.limiter = new RateLimiter(maxPerTick, maxPerMinute);
+  }
+
+  /** New unlink limits, keeping the permits already granted in the current minute. */
+  public synchronized void setLimits(int maxPerTick, int maxPerMinute) {
+    RateLimiter next = new RateLimiter(maxPerTick, maxPerMinute);
+    next.restore(limiter.windowStart(), limiter.used());
+    limiter = next;
+  }
+
+  @Override public List<UUID> ghosts(Collection<UUID> tracked, Set<UUID> live) {
+    return tracked.stream().filter(u -> !live.contains(u)).collect(Collectors.toList());
+  }
+
+  @Override public List<UUID> stable(String world, List<UUID> ghosts, int minCycles) {
+    return diff(world).filterStable(ghosts, minCycles);
+  }
+
+  @Override public List<GhostCandidate> select(String world, List<UUID> stable,
+                                               ToLongFunction<UUID> estimatedBytes, long nowMillis) {
+    int allowed = limiter.permit(stable.size(), nowMillis);
+    if (allowed <= 0) return List.of();
+
+    SnapshotDiff diff = diff(world);
+    PriorityQueue<GhostCandidate> queue = new PriorityQueue<>(GhostCandidate.PRIORITY);
+    for (UUID id : stable) queue.add(new GhostCandidate(id, estimatedBytes.applyAsLong(id), diff.age(id)));
+
+    List<GhostCandidate> out = new ArrayList<>(allowed);
+    while (out.size() < allowed && !queue.isEmpty()) out.add(queue.poll());
+    return out;
+  }
+
+  @Override public void restore(Map<String, Map<UUID, Integer>> hysteresis, long limiterWindow, int limiterUsed) {
+    history.clear();
+    hysteresis.forEach((w, counters) -> diff(w).restore(counters));
+    limiter.restore(limiterWindow, limiterUsed);
+  }
+
+  public Map<UUID, Integer> hysteresis(String world) {
+    SnapshotDiff d = history.get(world);
+    return d == null ? Map.of() : d.counters();
+  }
+
+  /** True if any world's hysteresis is still counting {@code u}. */
+  public boolean isCandidate(UUID u) {
+    for (SnapshotDiff d : history.values()) if (d.contains(u)) return true;
+    return false;
+  }
+
+  public int candidateCount() {
+    return history.values().stream().mapToInt(SnapshotDiff::candidateSize).sum();
+  }
+
+  public long limiterWindow() { return limiter.windowStart(); }
+
+  public int limiterUsed() { return limiter.used(); }
+
+  private SnapshotDiff diff(String world) {
+    return history.computeIfAbsent(world, k -> new SnapshotDiff());
+  }
+}
@@ -15,5 +15,9 @@ public final class SnapshotDiff {
     for (var e: seen.entrySet()) if (e.getValue() >= minCycles) out.add(e.getKey());
     return out;
   }
+  public int age(UUID u) { return seen.getOrDefault(u, 0); }
+  public boolean contains(UUID u) { return seen.containsKey(u); }
   public int candidateSize() { return seen.size(); }
+  public Map<UUID,Integer> counters() { return new HashMap<>(seen); }
+  public void restore(Map<UUID,Integer> counters) { seen.clear(); seen.putAll(counters); }
 }
@@ -0,0 +1,68 @@
+package com.splatage.ghostbuster.core;
+
+import com.splatage.ghostbuster.util.UuidCuckooFilter;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Per-world probabilistic set of the UUIDs the last full tracker snapshot saw, plus the
+ * exact set of entities added to the world since that snapshot began. A removed entity
+ * that misses both was in no tracker container when the snapshot read them and joined
+ * before it, so verify-on-remove skips its graph walk. A snapshot that was capped,
+ * sampled or cut short proves nothing, and the world goes without a filter until the
+ * next full one. Lookups take no lock: each filter is filled before it is published.
+ */
+final class TrackerPrefilter {
+  private static final int MIN_CAPACITY = 1024;
+
+  private record Generation(UuidCuckooFilter tracked, Set<UUID> addedSince) {}
+
+  private final ConcurrentMap<String, Generation> current = new ConcurrentHashMap<>();
+  // Per world: entities added since the in-flight snapshot began; the next generation's addedSince
+  private final ConcurrentMap<String, Set<UUID>> pending = new ConcurrentHashMap<>();
+
+  /** Call before the snapshot of {@code world} starts reading its containers. */
+  void beginSnapshot(String world) { pending.put(world, ConcurrentHashMap.newKeySet()); }
+
+  void onAdd(String world, UUID id) {
+    // Pending first: once rebuild has dropped it, current already holds the same set
+    Set<UUID> next = pending.get(world);
+    if (next != null) next.add(id);
+    Generation g = current.get(world);
+    if (g != null) g.addedSince().add(id);
+  }
+
+  /** Replaces the world's filter with the contents of a full snapshot. */
+  void rebuild(String world, Collection<UUID> tracked) {
+    Set<UUID> since = pending.get(world);
+    if (since == null) { current.remove(world); return; } // no beginSnapshot: adds in between are unknown
+    UuidCuckooFilter next = new UuidCuckooFilter(Math.max(MIN_CAPACITY, tracked.size() * 2));
+    for (UUID u : tracked) next.add(u); // a snapshot set: no duplicates
+    current.put(world, new Generation(next, since));
+    pending.remove(world, since);
+  }
+
+  /** The snapshot was not full: no filter for {@code world} until the next full one. */
+  void invalidate(String world) {
+    pending.remove(world);
+    current.remove(world);
+  }
+
+  /** False only when {@code id} joined before, and was in no tracker container of, {@code world}'s last full snapshot. */
+  boolean mightBeTracked(String world, UUID id) {
+    Generation g = current.get(world);
+    return g == null || g.addedSince().contains(id) || g.tracked().mightContain(id); // no snapshot: assume the worst
+  }
+
+  /** A full walk proved {@code id} untracked; drop it so the filter stays tight between rebuilds. */
+  void confirmedAbsent(String world, UUID id) {
+    Generation g = current.get(world);
+    if (g == null) return;
+    g.addedSince().remove(id);
+    g.tracked().remove(id);
+  }
+}
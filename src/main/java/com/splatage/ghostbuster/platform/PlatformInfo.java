@@ -2,22 +2,51 @@ package com.splatage.ghostbuster.platform;
 
 import org.bukkit.Server;
 
+import java.lang.reflect.Field;
+
 public final class PlatformInfo {
+  // Static boolean switches forks use for parallel world ticking ("class#field")
+  private static final String[] PWT_FLAGS = {
+      "org.dreeam.leaf.config.modules.async.SparklyPaperParallelWorldTicking#enabled",
+  };
+
   private final boolean folia;
-  private final boolean parallelTicking;
+  private final boolean forced;        // sysprop/env
+  private volatile boolean forkFlag;
+  private volatile Boolean override;   // config parallel-ticking: null = auto
 
-  private PlatformInfo(boolean folia, boolean parallelTicking) {
+  private PlatformInfo(boolean folia, boolean forced, Boolean override) {
     this.folia = folia;
-    this.parallelTicking = parallelTicking;
+    this.forced = forced;
+    this.override = override;
+    this.forkFlag = forkFlagSet();
   }
-  public static PlatformInfo detect(Server server) {
+  public static PlatformInfo detect(Server server, Boolean override) {
     boolean folia = hasMethod(server.getClass(), "getGlobalRegionScheduler")
                     || classExists("io.papermc.paper.threadedregions.scheduler.RegionScheduler");
-    // Leaf parallel world ticking (no stable API): use a heuristic flag via system prop or env,
-    // and allow manual override with config. Keep conservative default: assume false.
+    // Leaf parallel world ticking (no stable API): explicit sysprop/env override, or the fork's own
+    // config switch when present; the config's parallel-ticking setting overrides both
     boolean pwt = Boolean.getBoolean("leaf.parallelTicking") || envTrue("LEAF_PWT");
-    return new PlatformInfo(folia, pwt);
+    return new PlatformInfo(folia, pwt, override);
   }
+
+  /** Re-reads the fork's switch, which tracks the fork's own config; not sticky. */
+  public void refresh() { forkFlag = forkFlagSet(); }
+
+  /** From config: true/false skip detection, null detects. */
+  public void setOverride(Boolean override) { this.override = override; }
+
+  private static boolean forkFlagSet() {
+    for (String spec : PWT_FLAGS) {
+      int i = spec.indexOf('#');
+      try {
+        Field f = Class.forName(spec.substring(0, i)).getDeclaredField(spec.substring(i + 1));
+        if (f.trySetAccessible() && f.getType() == boolean.class && f.getBoolean(null)) return true;
+      } catch (Throwable ignored) {}
+    }
+    return false;
+  }
+
   private static boolean hasMethod(Class<?> c, String name) {
     for (var m: c.getMethods()) if (m.getName().equals(name)) return true;
     return false;
@@ -29,6 +58,18 @@ public final class PlatformInfo {
     String v = System.getenv(k);
     return v != null && (v.equalsIgnoreCase("1") || v.equalsIgnoreCase("true"));
   }
+  /** Average tick time in ms, or -1 where there is no global tick (Folia regions tick separately). */
+  public double averageTickMillis(Server server) {
+    try {
+      return server.getAverageTickTime();
+    } catch (Throwable t) {
+      return -1;
+    }
+  }
+
   public boolean isFolia() { return folia; }
-  public boolean parallelTickingDetected() { return parallelTicking; }
+  public boolean parallelTickingDetected() {
+    Boolean o = override;
+    return o != null ? o : forced || forkFlag;
+  }
 }
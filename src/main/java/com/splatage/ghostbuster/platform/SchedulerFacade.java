@@ -1,12 +1,32 @@
 package com.splatage.ghostbuster.platform;
 
 import org.bukkit.World;
-import java.util.UUID;
-import java.util.function.Consumer;
+import org.bukkit.entity.Entity;
+import java.util.List;
+import java.util.Map;
 
 public interface SchedulerFacade {
   void runGlobalSync(Runnable r);
   void runLaterSync(long ticks, Runnable r);
   void runAt(World world, int blockX, int blockZ, Runnable r);
-  void withEntityWorld(UUID uuid, Consumer<World> action);
+
+  /**
+   * Runs {@code task} on the thread owning {@code entity} (Folia EntityScheduler), or on the
+   * main thread elsewhere. {@code retired} runs instead if the entity is removed first.
+   */
+  void runForEntity(Entity entity, Runnable task, Runnable retired);
+
+  /**
+   * Runs each chunk's tasks, in list order, on the thread owning that chunk. One scheduler
+   * submission per chunk on Folia; a single main-thread task for the whole batch elsewhere.
+   * Keys are {@link #chunkKey(int, int)}.
+   */
+  void submitBatch(World world, Map<Long, List<Runnable>> byChunk);
+
+  static long chunkKey(int chunkX, int chunkZ) {
+    return ((long) chunkZ << 32) | (chunkX & 0xFFFFFFFFL);
+  }
+
+  static int chunkX(long key) { return (int) key; }
+  static int chunkZ(long key) { return (int) (key >>> 32); }
 }
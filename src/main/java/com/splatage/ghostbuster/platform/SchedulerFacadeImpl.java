@@ -5,67 +5,120 @@ import org.bukkit.World;
 import org.bukkit.entity.Entity;
 import org.bukkit.plugin.Plugin;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
-import java.util.UUID;
+import java.util.List;
+import java.util.Map;
 import java.util.function.Consumer;
 
 public final class SchedulerFacadeImpl implements SchedulerFacade {
   private final Plugin plugin;
   private final PlatformInfo platform;
 
-  // Folia reflectors (optional)
-  private final Object globalRegionScheduler; // Server.getGlobalRegionScheduler()
-  private final Object regionScheduler;       // Server.getRegionScheduler()
-  private final Method grsExecute;            // execute(Plugin,Runnable)
-  private final Method rsExecute;             // execute(Plugin,World,int,int,Runnable)
+  // Folia entry points (optional), resolved once and bound to their scheduler instances
+  private final MethodHandle grsExecute;      // GlobalRegionScheduler.execute(Plugin,Runnable)
+  private final MethodHandle grsRunDelayed;   // GlobalRegionScheduler.runDelayed(Plugin,Consumer,long)
+  private final MethodHandle rsExecute;       // RegionScheduler.execute(Plugin,World,int chunkX,int chunkZ,Runnable)
+  private final MethodHandle entityScheduler; // Entity.getScheduler()
+  private final MethodHandle esExecute;       // EntityScheduler.execute(Plugin,Runnable,Runnable,long)
 
   public SchedulerFacadeImpl(Plugin plugin, PlatformInfo platform) {
     this.plugin = plugin;
     this.platform = platform;
-    Object grs=null, rs=null; Method g=null, r=null;
+    MethodHandle g = null, gd = null, r = null, es = null, ese = null;
     if (platform.isFolia()) {
       try {
         var server = Bukkit.getServer();
         var cls = server.getClass();
-        var m1 = cls.getMethod("getGlobalRegionScheduler");
-        var m2 = cls.getMethod("getRegionScheduler");
-        grs = m1.invoke(server);
-        rs  = m2.invoke(server);
-        g = grs.getClass().getMethod("execute", Plugin.class, Runnable.class);
-        r = rs.getClass().getMethod("execute", Plugin.class, World.class, int.class, int.class, Runnable.class);
-      } catch (Throwable ignored) { grs = rs = null; g = r = null; }
+        Object grs = cls.getMethod("getGlobalRegionScheduler").invoke(server);
+        Object rs = cls.getMethod("getRegionScheduler").invoke(server);
+        g = bind(grs, "io.papermc.paper.threadedregions.scheduler.GlobalRegionScheduler", "execute",
+            MethodType.methodType(void.class, Plugin.class, Runnable.class));
+        gd = bind(grs, "io.papermc.paper.threadedregions.scheduler.GlobalRegionScheduler", "runDelayed",
+            MethodType.methodType(void.class, Plugin.class, Consumer.class, long.class));
+        r = bind(rs, "io.papermc.paper.threadedregions.scheduler.RegionScheduler", "execute",
+            MethodType.methodType(void.class, Plugin.class, World.class, int.class, int.class, Runnable.class));
+        Method getScheduler = Entity.class.getMethod("getScheduler");
+        es = MethodHandles.publicLookup().unreflect(getScheduler);
+        ese = MethodHandles.publicLookup().unreflect(getScheduler.getReturnType()
+            .getMethod("execute", Plugin.class, Runnable.class, Runnable.class, long.class));
+      } catch (Throwable ignored) { g = gd = r = es = ese = null; }
     }
-    this.globalRegionScheduler = grs;
-    this.regionScheduler = rs;
     this.grsExecute = g;
+    this.grsRunDelayed = gd;
     this.rsExecute = r;
+    this.entityScheduler = es;
+    this.esExecute = ese;
+  }
+
+  // Prefer the API interface's method: the implementation class may not be publicly accessible
+  private static MethodHandle bind(Object target, String apiType, String name, MethodType type) throws Throwable {
+    Class<?> owner;
+    try { owner = Class.forName(apiType); } catch (ClassNotFoundException e) { owner = target.getClass(); }
+    Method m = owner.getMethod(name, type.parameterArray());
+    return MethodHandles.publicLookup().unreflect(m).bindTo(target).asType(type);
   }
 
   @Override public void runGlobalSync(Runnable r) {
-    if (globalRegionScheduler != null && grsExecute != null) {
-      try { grsExecute.invoke(globalRegionScheduler, plugin, r); return; } catch (Throwable ignored) {}
+    if (grsExecute != null) {
+      try { grsExecute.invokeExact(plugin, r); return; } catch (Throwable ignored) {}
     }
     Bukkit.getScheduler().runTask(plugin, r); // Paper/Spigot
   }
 
   @Override public void runLaterSync(long ticks, Runnable r) {
-    if (globalRegionScheduler != null && grsExecute != null) {
-      // Folia doesn't support delayed global directly; chain with Bukkit scheduler delay then GRS
-      Bukkit.getScheduler().runTaskLater(plugin, () -> runGlobalSync(r), ticks);
-      return;
+    if (grsRunDelayed != null) {
+      // Folia has no BukkitScheduler; the global region scheduler takes the delay directly
+      Consumer<Object> task = t -> r.run();
+      try { grsRunDelayed.invokeExact(plugin, task, Math.max(1L, ticks)); return; } catch (Throwable ignored) {}
     }
     Bukkit.getScheduler().runTaskLater(plugin, r, ticks);
   }
 
   @Override public void runAt(World world, int blockX, int blockZ, Runnable r) {
-    if (regionScheduler != null && rsExecute != null) {
-      try { rsExecute.invoke(regionScheduler, plugin, world, blockX, blockZ, r); return; } catch (Throwable ignored) {}
+    if (rsExecute != null) {
+      try { rsExecute.invokeExact(plugin, world, blockX >> 4, blockZ >> 4, r); return; } catch (Throwable ignored) {}
     }
     runGlobalSync(r); // fallback on single-threaded servers
   }
 
-  @Override public void withEntityWorld(UUID uuid, Consumer<World> action) {
-    Entity e = Bukkit.getEntity(uuid);
-    if (e != null) action.accept(e.getWorld());
+  @Override public void submitBatch(World world, Map<Long, List<Runnable>> byChunk) {
+    if (byChunk.isEmpty()) return;
+    if (rsExecute != null) {
+      for (var e : byChunk.entrySet()) {
+        List<Runnable> tasks = e.getValue();
+        Runnable run = () -> runAll(tasks);
+        int cx = SchedulerFacade.chunkX(e.getKey()), cz = SchedulerFacade.chunkZ(e.getKey());
+        try { rsExecute.invokeExact(plugin, world, cx, cz, run); continue; } catch (Throwable ignored) {}
+        runGlobalSync(run);
+      }
+      return;
+    }
+    // Single-threaded servers: everything belongs to the main thread, so submit once
+    List<List<Runnable>> all = List.copyOf(byChunk.values());
+    runGlobalSync(() -> all.forEach(this::runAll));
+  }
+
+  // One failing task must not starve the rest of its batch
+  private void runAll(List<Runnable> tasks) {
+    for (Runnable t : tasks) {
+      try { t.run(); } catch (Throwable ex) {
+        plugin.getLogger().warning("batched task failed: " + ex.getClass().getSimpleName() + ": " + ex.getMessage());
+      }
+    }
+  }
+
+  @Override public void runForEntity(Entity entity, Runnable task, Runnable retired) {
+    if (entityScheduler != null && esExecute != null) {
+      try {
+        Object es = entityScheduler.invoke(entity);
+        boolean scheduled = (boolean) esExecute.invoke(es, plugin, task, retired, 1L);
+        if (!scheduled) retired.run();
+        return;
+      } catch (Throwable ignored) {}
+    }
+    runGlobalSync(task);
   }
 }
@@ -0,0 +1,26 @@
+package com.splatage.ghostbuster.reflect;
+
+/**
+ * Ghost-rate estimate for one sampled (class#field) container: the share of examined
+ * entries whose UUID was not live, with a 95% Wilson score interval. Taken from the
+ * last completed pass over the container, or the pass in progress if none has completed.
+ */
+public record ContainerEstimate(
+    String world,
+    String owner,
+    int size,
+    double coverage,
+    long passes,
+    long examined,
+    long suspects,
+    int carried,
+    double rate,
+    double low,
+    double high
+) {
+  public long estimatedGhosts() { return Math.round(rate * size); }
+
+  public long estimatedGhostsLow() { return Math.round(low * size); }
+
+  public long estimatedGhostsHigh() { return Math.round(high * size); }
+}
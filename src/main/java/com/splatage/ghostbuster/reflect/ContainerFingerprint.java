@@ -0,0 +1,103 @@
+package com.splatage.ghostbuster.reflect;
+
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+
+/**
+ * Cheap change detector for a tracker container: size, the map's own modCount when
+ * the implementation has a reachable one, the identity of its backing table array
+ * (replaced on every rehash) and a hash of table slots. Maps without a modCount
+ * (fastutil) hash every slot in a full fingerprint, one pass over a primitive array,
+ * since a remove plus an add at the same size touches only two; a sampled fingerprint
+ * hashes a few slots and only guards a windowed read. JDK maps hide all of these
+ * behind module boundaries, so their fingerprints are {@link #reliable()} = false.
+ */
+final class ContainerFingerprint {
+  private static final int SAMPLES = 8;
+
+  // [0] = int modCount field, [1] = backing table array field; either may be null
+  private static final ClassValue<Field[]> PROBES = new ClassValue<>() {
+    @Override protected Field[] computeValue(Class<?> c) { return probe(c); }
+  };
+
+  private final int size;
+  private final int modCount;
+  private final boolean hasModCount;
+  private final WeakReference<Object> table; // weak: never keep a rehashed-away array alive
+  private final boolean full;
+  private final int slots;
+
+  private ContainerFingerprint(int size, int modCount, boolean hasModCount, Object table, boolean full, int slots) {
+    this.size = size;
+    this.modCount = modCount;
+    this.hasModCount = hasModCount;
+    this.table = table == null ? null : new WeakReference<>(table);
+    this.full = full;
+    this.slots = slots;
+  }
+
+  /** Full fingerprint: sees any change of a map with a modCount or a reachable table. */
+  static ContainerFingerprint of(Map<?, ?> m) { return of(m, true); }
+
+  /** With {@code full} false, maps without a modCount get a few sampled slots only: O(1), not {@link #reliable()}. */
+  static ContainerFingerprint of(Map<?, ?> m, boolean full) {
+    Field[] p = PROBES.get(m.getClass());
+    int mod = 0;
+    boolean hasMod = false;
+    Object tbl = null;
+    try {
+      if (p[0] != null) { mod = p[0].getInt(m); hasMod = true; }
+      if (p[1] != null) tbl = p[1].get(m);
+    } catch (Throwable ignored) {}
+    boolean everySlot = full && !hasMod;
+    return new ContainerFingerprint(m.size(), mod, hasMod, tbl, full, hashSlots(tbl, everySlot ? Integer.MAX_VALUE : SAMPLES));
+  }
+
+  /** True when a remove+add at the same size is seen; size alone cannot see one. */
+  boolean reliable() { return hasModCount || (table != null && full); }
+
+  boolean sameAs(ContainerFingerprint o) {
+    if (o == null || size != o.size || hasModCount != o.hasModCount || modCount != o.modCount) return false;
+    if ((table == null) != (o.table == null) || full != o.full) return false;
+    return (table == null || table.get() == o.table.get()) && slots == o.slots;
+  }
+
+  // Position-dependent hash of up to n evenly spaced slots (every slot when n >= length)
+  private static int hashSlots(Object tbl, int n) {
+    if (tbl == null) return 0;
+    int h = 1;
+    if (tbl instanceof Object[] a) {
+      int k = Math.min(n, a.length);
+      for (int i = 0; i < k; i++) h = 31 * h + System.identityHashCode(a[(int) ((long) i * a.length / k)]);
+    } else if (tbl instanceof int[] a) {
+      int k = Math.min(n, a.length);
+      for (int i = 0; i < k; i++) h = 31 * h + a[(int) ((long) i * a.length / k)];
+    } else if (tbl instanceof long[] a) {
+      int k = Math.min(n, a.length);
+      for (int i = 0; i < k; i++) h = 31 * h + Long.hashCode(a[(int) ((long) i * a.length / k)]);
+    }
+    return h;
+  }
+
+  private static Field[] probe(Class<?> c) {
+    Field mod = null, tbl = null, firstArray = null;
+    for (Class<?> k = c; k != null && k != Object.class; k = k.getSuperclass()) {
+      for (Field f : k.getDeclaredFields()) {
+        if (Modifier.isStatic(f.getModifiers())) continue;
+        if (mod == null && f.getType() == int.class && f.getName().equals("modCount")) mod = accessible(f);
+        if (f.getType().isArray()) {
+          String n = f.getName();
+          if (tbl == null && (n.equals("key") || n.equals("keys") || n.equals("table"))) tbl = accessible(f);
+          if (firstArray == null) firstArray = accessible(f);
+        }
+      }
+    }
+    return new Field[] { mod, tbl != null ? tbl : firstArray };
+  }
+
+  private static Field accessible(Field f) {
+    try { return f.trySetAccessible() ? f : null; } catch (Throwable t) { return null; }
+  }
+}
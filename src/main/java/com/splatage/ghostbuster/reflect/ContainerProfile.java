@@ -0,0 +1,14 @@
+package com.splatage.ghostbuster.reflect;
+
+/** Cost of scanning one (class#field) tracker container during a profiled traversal. */
+public record ContainerProfile(
+    String owner,
+    int size,
+    int scanned,
+    long nanos,
+    int uuidHits,
+    int uuidMisses,
+    boolean truncated
+) {
+  public double hitRate() { return scanned == 0 ? 0.0 : (double) uuidHits / scanned; }
+}
@@ -0,0 +1,137 @@
+package com.splatage.ghostbuster.reflect;
+
+import java.lang.ref.WeakReference;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Rotating scan windows for containers larger than their scan cap. Each scan reads
+ * {@code cap} entries starting where the previous window ended, so every entry is
+ * examined once per ceil(size / cap) scans. Positions are table slots where the map
+ * exposes them, making the per-scan cost fixed; iterated maps step over the entries
+ * before the window, so theirs grows with the offset. Ghost suspects
+ * seen in a window are carried until their window comes round again, so they stay in
+ * consecutive snapshots for hysteresis, and each pass yields a ghost-rate estimate.
+ */
+final class ContainerSampler {
+  private static final double Z95 = 1.96;
+
+  private record Key(String world, String owner, int ownerIdentity) {}
+
+  // Iteration position is only a hint for targeted lookups: it drifts as the map changes
+  private record Carried(long seenScan, int position) {}
+
+  static final class Window {
+    private final Key key;
+    private final WeakReference<Object> container;
+    private final Map<UUID, Carried> carried = new ConcurrentHashMap<>();
+    private volatile int offset;
+    private volatile long lastScan;
+    private volatile int size;
+    private volatile int extent; // positions in the container: table slots, or entries when iterated
+    // pass in progress
+    private long examined, suspects;
+    private int covered;
+    // last completed pass
+    private long passes, passExamined, passSuspects;
+
+    private Window(Key key, Object container) {
+      this.key = key;
+      this.container = new WeakReference<>(container);
+    }
+
+    int offset() { return offset; }
+  }
+
+  private final Map<Key, Window> windows = new ConcurrentHashMap<>();
+  private final Map<String, AtomicLong> scans = new ConcurrentHashMap<>();
+
+  /** Starts a scan generation of {@code world}; its windows not touched since the previous one are dropped. */
+  void beginScan(String world) {
+    long prev = scans.computeIfAbsent(world, k -> new AtomicLong()).getAndIncrement();
+    windows.values().removeIf(w -> w.key.world().equals(world) && (w.lastScan < prev || w.container.get() == null));
+  }
+
+  private long scan(String world) {
+    return scans.computeIfAbsent(world, k -> new AtomicLong()).get();
+  }
+
+  /** Window state for this container; restarts from the beginning if the container was replaced. */
+  Window window(String world, Object owner, String ownerKey, Map<?, ?> m) {
+    Key key = new Key(world, ownerKey, System.identityHashCode(owner));
+    Window w = windows.get(key);
+    if (w == null || w.container.get() != m) {
+      w = new Window(key, m);
+      windows.put(key, w);
+    }
+    w.lastScan = scan(world);
+    return w;
+  }
+
+  /**
+   * Records one window read that stepped over {@code visited} of the container's
+   * {@code extent} positions, holding {@code size} entries; {@code found} holds the
+   * non-live UUIDs seen with their positions. Advances the offset, folds the counts into
+   * the pass and returns every suspect still carried for this container.
+   */
+  synchronized Collection<UUID> record(Window w, int size, int extent, int visited, int uuids,
+                                       Map<UUID, Integer> found, Predicate<UUID> suspectIf) {
+    long now = scan(w.key.world());
+    w.size = size;
+    w.extent = extent;
+    found.forEach((u, pos) -> w.carried.put(u, new Carried(now, pos)));
+    w.examined += uuids;
+    w.suspects += found.size();
+    w.covered += visited;
+    if (w.covered >= extent) {
+      w.passes++;
+      w.passExamined = w.examined;
+      w.passSuspects = w.suspects;
+      w.examined = w.suspects = w.covered = 0;
+    }
+    w.offset = extent == 0 ? 0 : (w.offset + visited) % extent;
+
+    // A suspect not seen again once its window has come round has left the container
+    long windowsPerPass = visited == 0 ? 1 : (extent + visited - 1) / visited;
+    w.carried.entrySet().removeIf(e ->
+        now - e.getValue().seenScan() > windowsPerPass || !suspectIf.test(e.getKey()));
+    return new ArrayList<>(w.carried.keySet());
+  }
+
+  /**
+   * Start offset for a targeted read of {@code cap} entries that most likely covers
+   * {@code uuid}, centred on where the sampler last saw it; 0 if it was never seen.
+   */
+  int hint(String world, Object owner, String ownerKey, UUID uuid, int cap) {
+    Window w = windows.get(new Key(world, ownerKey, System.identityHashCode(owner)));
+    Carried c = w == null ? null : w.carried.get(uuid);
+    return c == null ? 0 : Math.max(0, c.position() - cap / 2);
+  }
+
+  synchronized List<ContainerEstimate> estimates() {
+    List<ContainerEstimate> out = new ArrayList<>();
+    for (Window w : windows.values()) {
+      long n = w.passes > 0 ? w.passExamined : w.examined;
+      long s = w.passes > 0 ? w.passSuspects : w.suspects;
+      double coverage = w.extent == 0 ? 1.0 : Math.min(1.0, (double) w.covered / w.extent);
+      double[] ci = wilson(s, n);
+      out.add(new ContainerEstimate(w.key.world(), w.key.owner(), w.size, coverage, w.passes,
+          n, s, w.carried.size(), n == 0 ? 0.0 : (double) s / n, ci[0], ci[1]));
+    }
+    return out;
+  }
+
+  int size() { return windows.size(); }
+
+  // 95% Wilson score interval for s successes in n trials
+  private static double[] wilson(long s, long n) {
+    if (n == 0) return new double[] { 0.0, 1.0 };
+    double p = (double) s / n, z2 = Z95 * Z95;
+    double denom = 1 + z2 / n;
+    double centre = (p + z2 / (2.0 * n)) / denom;
+    double half = Z95 * Math.sqrt(p * (1 - p) / n + z2 / (4.0 * n * n)) / denom;
+    return new double[] { Math.max(0.0, centre - half), Math.min(1.0, centre + half) };
+  }
+}
@@ -0,0 +1,79 @@
+package com.splatage.ghostbuster.reflect;
+
+import java.lang.ref.WeakReference;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * UUIDs read from each tracker container at its last full scan, reused while the
+ * container's {@link ContainerFingerprint} is unchanged. Scan cost then follows
+ * churn rather than total entity count; every entry is still re-read at least
+ * once every {@code maxReuse} scans as a backstop against fingerprint blind spots.
+ */
+final class ContainerScanCache {
+  private record Key(String world, String owner, int ownerIdentity) {}
+
+  private static final class Entry {
+    final WeakReference<Object> container;
+    final ContainerFingerprint fp;
+    final UUID[] uuids;
+    int reuses;
+    long lastScan;
+
+    Entry(Object container, ContainerFingerprint fp, UUID[] uuids, long scan) {
+      this.container = new WeakReference<>(container);
+      this.fp = fp;
+      this.uuids = uuids;
+      this.lastScan = scan;
+    }
+  }
+
+  private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+  private final int maxReuse;
+  // Worlds scan on their own intervals, so each ages its entries on its own generation
+  private final Map<String, AtomicLong> scans = new ConcurrentHashMap<>();
+
+  ContainerScanCache(int maxReuse) { this.maxReuse = maxReuse; }
+
+  boolean enabled() { return maxReuse > 0; }
+
+  /** Starts a scan generation of {@code world}; its entries not touched since the previous one are dropped. */
+  void beginScan(String world) {
+    long prev = scans.computeIfAbsent(world, w -> new AtomicLong()).getAndIncrement();
+    entries.entrySet().removeIf(e -> e.getKey().world().equals(world)
+        && (e.getValue().lastScan < prev || e.getValue().container.get() == null));
+  }
+
+  private long scan(String world) {
+    return scans.computeIfAbsent(world, w -> new AtomicLong()).get();
+  }
+
+  /**
+   * Cached UUIDs for this container if it is unchanged, else null. A cached UUID that now
+   * matches {@code rescanIf} (a new ghost suspect that needs its entry examined) also forces a rescan.
+   */
+  UUID[] lookup(String world, Object owner, String ownerKey, Map<?, ?> m, ContainerFingerprint fp,
+                Predicate<UUID> rescanIf) {
+    if (!enabled() || !fp.reliable()) return null;
+    Entry e = entries.get(new Key(world, ownerKey, System.identityHashCode(owner)));
+    if (e == null || e.container.get() != m || !e.fp.sameAs(fp) || e.reuses >= maxReuse) return null;
+    if (rescanIf != null) {
+      for (UUID u : e.uuids) if (rescanIf.test(u)) return null;
+    }
+    e.reuses++;
+    e.lastScan = scan(world);
+    return e.uuids;
+  }
+
+  void store(String world, Object owner, String ownerKey, Map<?, ?> m, ContainerFingerprint fp, List<UUID> uuids) {
+    if (!enabled() || !fp.reliable()) return;
+    entries.put(new Key(world, ownerKey, System.identityHashCode(owner)),
+        new Entry(m, fp, uuids.toArray(new UUID[0]), scan(world)));
+  }
+
+  int size() { return entries.size(); }
+}
@@ -0,0 +1,13 @@
+package com.splatage.ghostbuster.reflect;
+
+/** Result of detaching a ghost through the owner entries recorded when it was detected. */
+public enum Detach {
+  /** At least one recorded entry was removed and the rest were already gone. */
+  DETACHED,
+  /** No recorded entry held the ghost any more: nothing to do. */
+  GONE,
+  /** An entry's container was collected or its key now maps to another entity; needs a full unlink. */
+  STALE,
+  /** Nothing recorded for this ghost in this world. */
+  NO_LINKS
+}
@@ -0,0 +1,48 @@
+package com.splatage.ghostbuster.reflect;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * The exact (container, key) entries each ghost suspect was read from, so a confirmed
+ * ghost can be detached with one keyed remove per entry instead of another traversal.
+ * Containers are held weakly; keys only when they are plain values (entity ids, UUIDs,
+ * strings), never objects that could themselves keep a ghost alive.
+ */
+final class GhostLinks {
+  record Link(String world, String owner, WeakReference<Map<?, ?>> container, Object key) {}
+
+  private final Map<UUID, List<Link>> byGhost = new ConcurrentHashMap<>();
+
+  static boolean storableKey(Object key) {
+    return key instanceof Number || key instanceof UUID || key instanceof String || key instanceof Character;
+  }
+
+  /** Records (or refreshes) the entry of {@code container} under {@code key} that holds {@code id}. */
+  void record(UUID id, String world, String owner, Map<?, ?> container, Object key) {
+    byGhost.compute(id, (k, links) -> {
+      List<Link> next = new ArrayList<>(links == null ? 1 : links.size() + 1);
+      if (links != null) {
+        for (Link l : links) if (l.container().get() != container || !l.key().equals(key)) next.add(l);
+      }
+      next.add(new Link(world, owner, new WeakReference<>(container), key));
+      return List.copyOf(next);
+    });
+  }
+
+  List<Link> get(UUID id) {
+    List<Link> links = byGhost.get(id);
+    return links == null ? List.of() : links;
+  }
+
+  void remove(UUID id) { byGhost.remove(id); }
+
+  void retainIf(Predicate<UUID> keep) { byGhost.keySet().removeIf(u -> !keep.test(u)); }
+
+  int size() { return byGhost.size(); }
+}
@@ -1,20 +1,74 @@
 package com.splatage.ghostbuster.reflect;
 
 import com.splatage.ghostbuster.config.PluginConfig;
+import com.splatage.ghostbuster.config.WorldProfile;
 import org.bukkit.World;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
 import java.util.logging.Logger;
 
 import static com.splatage.ghostbuster.reflect.Reflectors.*;
 
 public final class NmsIntrospector {
   private final Logger log;
-  private final PluginConfig cfg;
+  private volatile PluginConfig cfg;
+  private volatile RetainedSizeEstimator sizer;
+  private final Map<String, Integer> resolvedCaps = new ConcurrentHashMap<>();
+  private volatile ContainerScanCache scanCache;
+  private final ContainerSampler sampler = new ContainerSampler();
+  // Per world: index into its container list where a budget-limited walk resumes
+  private final Map<String, Integer> resumeAt = new ConcurrentHashMap<>();
+  // Owner entries each suspect was read from, for quarantine detach
+  private final GhostLinks links = new GhostLinks();
+  // Suspects of containers a budget-limited scan did not reach, reported until they are read again
+  private final SuspectCarry carry = new SuspectCarry();
+
+  // Optimistic reads for servers where other threads may write tracker maps mid-scan
+  private volatile boolean optimistic;
+  private final AtomicLong optimisticRetries = new AtomicLong();
+  private final AtomicLong unreadableContainers = new AtomicLong();
+
+  public NmsIntrospector(Logger log, PluginConfig cfg) {
+    this.log = log; this.cfg = cfg;
+    this.sizer = new RetainedSizeEstimator(cfg.sizeEstimateNodeCap());
+    this.scanCache = new ContainerScanCache(cfg.fingerprintMaxReuse());
+  }
+
+  /** Swaps in a reloaded config; caches whose sizing it changes start over. */
+  public void reconfigure(PluginConfig next) {
+    PluginConfig prev = this.cfg;
+    this.cfg = next;
+    resolvedCaps.clear();
+    carry.clear(); // container whitelists may have changed
+    if (next.sizeEstimateNodeCap() != prev.sizeEstimateNodeCap()) sizer = new RetainedSizeEstimator(next.sizeEstimateNodeCap());
+    if (next.fingerprintMaxReuse() != prev.fingerprintMaxReuse()) scanCache = new ContainerScanCache(next.fingerprintMaxReuse());
+  }
+
+  /** Call once per scan of {@code world}, before its snapshot, to age out its stale container cache entries. */
+  public void beginScanGeneration(String world) { scanCache.beginScan(world); sampler.beginScan(world); carry.beginScan(world); }
+
+  public int cachedContainers() { return scanCache.size(); }
+
+  public int sampledContainers() { return sampler.size(); }
+
+  /** Ghost-rate estimates for every container currently read in rotating windows. */
+  public List<ContainerEstimate> samplingEstimates() { return sampler.estimates(); }
+
+  public void setOptimistic(boolean optimistic) { this.optimistic = optimistic; }
+
+  public long optimisticRetries() { return optimisticRetries.get(); }
+
+  public long unreadableContainers() { return unreadableContainers.get(); }
 
-  public NmsIntrospector(Logger log, PluginConfig cfg) { this.log = log; this.cfg = cfg; }
+  public int linkedGhosts() { return links.size(); }
+
+  /** Drops recorded owner entries of ghosts no longer worth detaching. */
+  public void retainLinks(Predicate<UUID> keep) { links.retainIf(keep); }
 
   // -------- debug: synthetic ghost injection --------
   /**
@@ -22,202 +76,369 @@ public final class NmsIntrospector {
    * server-side tracking maps so a scan can detect and prune it.
    * We avoid JDK internals and only traverse MC/server packages.
    */
-  @SuppressWarnings({ "rawtypes", "unchecked" })
+  @SuppressWarnings("unchecked")
   public boolean debugInjectGhost(World world, UUID uuid) {
+    PluginConfig cfg = this.cfg;
+    boolean[] injected = new boolean[1];
     try {
-      Object sl = call(world, "getHandle", new Class<?>[0]); // ServerLevel (versioned type)
-      if (sl == null) return false;
-
-      List<Object> roots = new ArrayList<>();
-      roots.add(sl);
-      Object chunkSource = call(sl, "getChunkSource", new Class<?>[0]);
-      if (chunkSource != null) roots.add(chunkSource);
-      Object chunkMap = get(chunkSource, "chunkMap");
-      if (chunkMap != null) roots.add(chunkMap);
-
-      Deque<Object> dq = new ArrayDeque<>(roots);
-      Set<Object> seen = Collections.newSetFromMap(new IdentityHashMap<>());
-
-      while (!dq.isEmpty()) {
-        Object cur = dq.poll();
-        if (cur == null || seen.contains(cur)) continue;
-        seen.add(cur);
-
-        for (Field f : fields(cur, fld -> Map.class.isAssignableFrom(fld.getType()))) {
-          Object obj = getFieldValue(cur, f);
-          if (obj instanceof Map m) {
-            try { m.put(uuid, new Object()); return true; } catch (Throwable ignored) {}
-          }
-        }
-        for (Field f : fields(cur, fld ->
-            !fld.getType().isPrimitive()
-                && !Map.class.isAssignableFrom(fld.getType())
-                && !Collection.class.isAssignableFrom(fld.getType()))) {
-          Object nxt = getFieldValue(cur, f);
-          if (nxt != null && isAllowedPackage(nxt.getClass())) dq.add(nxt);
-        }
-      }
+      TrackerTraversal.walk(world, cfg.ownerMaxDepth(), cfg.traversalMaxNodes(), (owner, key, m) -> {
+        try { ((Map<Object, Object>) m).put(uuid, new Object()); injected[0] = true; return false; } catch (Throwable ignored) { return true; }
+      });
     } catch (Throwable t) {
       log.warning("debugInjectGhost failed: " + t.getClass().getSimpleName() + ": " + t.getMessage());
     }
-    return false;
+    return injected[0];
   }
 
   // -------- snapshots --------
 
   public Set<UUID> snapshotTrackedUUIDs(World world, int maxEntries) {
+    return snapshotTrackedUUIDs(world, maxEntries, null, null, null).uuids();
+  }
+
+  /**
+   * As {@link #snapshotTrackedUUIDs(World, int)} for a scan that knows the live set:
+   * {@code suspectIf} marks UUIDs that are not live. In sampling mode suspects found in
+   * a container's window are carried into later snapshots and counted towards its
+   * ghost-rate estimate. Suspects that also match {@code sizeIf} have their retained
+   * bytes estimated into {@code sizesOut}; the estimate walks the entry's object graph,
+   * so at most limits.size-estimates-per-scan are made and the rest wait for later scans.
+   * Only the world profile's containers are read, within its traversal budget; suspects
+   * last seen in containers this snapshot did not read are carried into it.
+   */
+  public TrackerSnapshot snapshotTrackedUUIDs(World world, int maxEntries, Predicate<UUID> suspectIf,
+                                              Predicate<UUID> sizeIf, Map<UUID, Long> sizesOut) {
+    return snapshotWalk(world, maxEntries, suspectIf, sizeIf, sizesOut, null);
+  }
+
+  /**
+   * One instrumented snapshot traversal: per (class#field) container, entries scanned,
+   * time spent, UUID extraction hits/misses and whether the scan cap truncated it.
+   * Timing is one nanoTime pair per container, so the walk costs about the same as a scan.
+   */
+  public List<ContainerProfile> profileContainers(World world, int maxEntries) {
+    List<ContainerProfile> out = new ArrayList<>();
+    snapshotWalk(world, maxEntries, null, null, null, out);
+    return out;
+  }
+
+  private record Container(Object owner, String key, Map<?, ?> map) {}
+
+  /** Containers one walk found; {@code truncated} if traversal-max-nodes stopped it before it reached them all. */
+  private record Containers(List<Container> list, boolean truncated) {}
+
+  private TrackerSnapshot snapshotWalk(World world, int maxEntries, Predicate<UUID> suspectIf, Predicate<UUID> sizeIf,
+                                       Map<UUID, Long> sizesOut, List<ContainerProfile> profileOut) {
+    PluginConfig cfg = this.cfg;
+    ContainerScanCache scanCache = this.scanCache;
+    String worldName = world.getName();
     Set<UUID> out = new HashSet<>();
-    Object sl = call(world, "getHandle", new Class<?>[0]); // ServerLevel
-    if (sl == null) return out;
-
-    List<Object> roots = new ArrayList<>();
-    roots.add(sl);
-    Object chunkSource = call(sl, "getChunkSource", new Class<?>[0]);
-    if (chunkSource != null) roots.add(chunkSource);
-    Object chunkMap = get(chunkSource, "chunkMap");
-    if (chunkMap != null) roots.add(chunkMap);
-
-    Deque<Object> dq = new ArrayDeque<>(roots);
-    Set<Object> seen = Collections.newSetFromMap(new IdentityHashMap<>());
-    int depth = 0;
-    while (!dq.isEmpty() && depth < 3) {
-      int sz = dq.size();
-      for (int i = 0; i < sz; i++) {
-        Object cur = dq.poll();
-        if (cur == null || seen.contains(cur)) continue;
-        seen.add(cur);
-
-        for (Field f : fields(cur, fld -> Map.class.isAssignableFrom(fld.getType()))) {
-          Object mapObj = getFieldValue(cur, f);
-          if (mapObj instanceof Map<?, ?> m) {
-            int count = 0;
-            for (var e : m.entrySet()) {
-              if (count++ > maxEntries) break;
-              Object k = e.getKey(), v = e.getValue();
-              UUID u = asUUID(k);
-              if (u != null) { out.add(u); continue; }
-              u = extractEntityUUID(v);
-              if (u != null) out.add(u);
-            }
-          }
+    // Profiling measures the plain capped read and must not move the sampling windows
+    boolean sampling = cfg.scanSampling() && suspectIf != null && profileOut == null;
+    boolean linking = cfg.quarantineEnabled() && suspectIf != null && profileOut == null;
+    boolean carrying = suspectIf != null && profileOut == null;
+    Predicate<UUID> needsSize = suspectIf != null && sizeIf != null ? u -> suspectIf.test(u) && sizeIf.test(u) : null;
+    int estimates = Math.max(0, cfg.sizeEstimatesPerScan());
+
+    Containers walked = trackerContainers(world, cfg, cfg.profile(worldName));
+    List<Container> containers = walked.list();
+    int n = containers.size();
+    long budget = profileOut == null ? cfg.profile(worldName).traversalBudgetMs() * 1_000_000L : 0L;
+    // Out of budget, the next scan resumes where this one stopped, so every container is still covered
+    int first = budget > 0 && n > 0 ? Math.floorMod(resumeAt.getOrDefault(worldName, 0), n) : 0;
+    long start = System.nanoTime();
+    int read = 0, failed = 0;
+    boolean capped = false; // some container read only in part: a window, or its cap
+    for (; read < n; read++) {
+      if (budget > 0 && read > 0 && System.nanoTime() - start > budget) break;
+      Container c = containers.get((first + read) % n);
+      Object cur = c.owner();
+      String owner = c.key();
+      Map<?, ?> m = c.map();
+
+      int cap = scanCapFor(owner, maxEntries);
+      int size = m.size();
+      // Larger than its cap: read a rotating window rather than the same leading entries every scan
+      ContainerSampler.Window window = sampling && size > cap ? sampler.window(worldName, cur, owner, m) : null;
+      if (size > cap) capped = true;
+
+      // Unchanged since its last full read: reuse that result (profiling always measures)
+      ContainerFingerprint fp = window == null && scanCache.enabled() ? ContainerFingerprint.of(m) : null;
+      if (fp != null && profileOut == null) {
+        UUID[] cached = scanCache.lookup(worldName, cur, owner, m, fp, needsSize);
+        if (cached != null) {
+          Collections.addAll(out, cached);
+          if (carrying) carry.read(worldName, cur, owner, m, Arrays.stream(cached).filter(suspectIf).toList());
+          continue;
         }
-        for (Field f : fields(cur, fld ->
-            !fld.getType().isPrimitive()
-                && !Map.class.isAssignableFrom(fld.getType())
-                && !Collection.class.isAssignableFrom(fld.getType())
-        )) {
-          Object nxt = getFieldValue(cur, f);
-          if (nxt != null && isAllowedPackage(nxt.getClass())) dq.add(nxt);
+      }
+
+      int from = window != null ? window.offset() : 0;
+      long t0 = profileOut != null ? System.nanoTime() : 0L;
+      List<UUID> found = new ArrayList<>();
+      List<Object> suspects = new ArrayList<>(); // (uuid, entry value) pairs to size once validated
+      Map<UUID, Integer> nonLive = new HashMap<>(); // suspect -> read position, for the sampler
+      List<Object> keys = new ArrayList<>(); // (uuid, key) pairs to record as owner entries
+      int[] span = new int[2];
+      int scanned = readContainer(m, from, cap, span, () -> { found.clear(); suspects.clear(); nonLive.clear(); keys.clear(); }, (k, v, pos) -> {
+        UUID u = asUUID(k);
+        if (u == null) u = extractEntityUUID(v);
+        if (u == null) return true;
+        found.add(u);
+        if (suspectIf != null && suspectIf.test(u)) {
+          if (window != null) nonLive.put(u, pos);
+          if (linking && GhostLinks.storableKey(k)) { keys.add(u); keys.add(k); }
+          if (sizeIf != null && !sizesOut.containsKey(u) && sizeIf.test(u)) { suspects.add(u); suspects.add(v); }
         }
+        return true;
+      });
+      if (scanned < 0) { failed++; continue; } // a concurrent writer won every attempt: skip this container only
+
+      out.addAll(found);
+      Collection<UUID> windowSuspects = window != null
+          ? sampler.record(window, size, span[1], span[0], found.size(), nonLive, suspectIf) : List.of();
+      out.addAll(windowSuspects);
+      if (carrying) {
+        List<UUID> held = nonLiveOf(found, suspectIf);
+        held.addAll(windowSuspects);
+        carry.read(worldName, cur, owner, m, held);
+      }
+      for (int i = 0; i < suspects.size() && estimates > 0; i += 2) {
+        if (sizesOut.containsKey((UUID) suspects.get(i))) continue;
+        sizesOut.put((UUID) suspects.get(i), sizer.estimate(suspects.get(i + 1)));
+        estimates--;
+      }
+      for (int i = 0; i < keys.size(); i += 2) links.record((UUID) keys.get(i), worldName, owner, m, keys.get(i + 1));
+      if (fp != null) scanCache.store(worldName, cur, owner, m, fp, found);
+      if (profileOut != null) {
+        boolean truncated = scanned >= cap && m.size() > scanned;
+        profileOut.add(new ContainerProfile(owner, m.size(), scanned, System.nanoTime() - t0,
+            found.size(), scanned - found.size(), truncated));
       }
-      depth++;
     }
+    if (budget > 0 && n > 0) resumeAt.put(worldName, (first + read) % n);
+    boolean complete = read == n && failed == 0 && !walked.truncated();
+    // Unread containers keep their last suspects, so hysteresis neither counts nor decays them on a guess
+    if (carrying) out.addAll(carry.unread(worldName, complete));
+    return new TrackerSnapshot(out, complete, complete && !capped);
+  }
+
+  private static List<UUID> nonLiveOf(List<UUID> found, Predicate<UUID> suspectIf) {
+    List<UUID> out = new ArrayList<>();
+    for (UUID u : found) if (suspectIf.test(u)) out.add(u);
     return out;
   }
 
+  // Containers on objects within the detection depth of the level roots, in a stable (BFS) order
+  private Containers trackerContainers(World world, PluginConfig cfg, WorldProfile profile) {
+    List<Container> out = new ArrayList<>();
+    TrackerTraversal.Stats stats = TrackerTraversal.walk(world, cfg.traversalMaxDepth(), cfg.traversalMaxNodes(), (owner, key, m) -> {
+      if (profile.readsContainer(key)) out.add(new Container(owner, key, m));
+      return true;
+    });
+    return new Containers(out, stats.truncated());
+  }
+
   // -------- verification & owners --------
 
-  public boolean isInTrackers(World world, UUID uuid) {
-    return !findOwners(world, uuid, 1).isEmpty();
+  /** Up to {@code limit} owners holding {@code uuid}, and whether the walk read everything it could reach. */
+  public OwnerSearch findOwners(World world, UUID uuid, int limit) {
+    PluginConfig cfg = this.cfg;
+    WorldProfile profile = cfg.profile(world.getName());
+    List<String> owners = new ArrayList<>();
+    if (limit <= 0) return new OwnerSearch(owners, false);
+    boolean[] skipped = new boolean[1];
+    TrackerTraversal.Stats stats = TrackerTraversal.walk(world, cfg.ownerMaxDepth(), cfg.traversalMaxNodes(), (cur, owner, m) -> {
+      if (!profile.readsContainer(owner)) return true;
+      int cap = scanCapFor(owner, profile.maxMapScanEntries());
+      boolean[] matched = new boolean[1];
+      int read = readContainer(m, targetedOffset(world, cur, owner, uuid, cap), cap, null, () -> matched[0] = false, (k, v, pos) -> {
+        if (uuid.equals(asUUID(k)) || uuid.equals(extractEntityUUID(v))) matched[0] = true;
+        return !matched[0];
+      });
+      if (read < 0) skipped[0] = true; // a failed read's partial result is not trusted
+      else if (matched[0]) owners.add(owner);
+      return owners.size() < limit;
+    });
+    return new OwnerSearch(owners, !stats.truncated() && !skipped[0]);
   }
 
-  public List<String> findOwners(World world, UUID uuid, int limit) {
-    List<String> owners = new ArrayList<>();
-    Object sl = call(world, "getHandle", new Class<?>[0]);
-    if (sl == null) return owners;
-
-    List<Object> roots = new ArrayList<>();
-    roots.add(sl);
-    Object chunkSource = call(sl, "getChunkSource", new Class<?>[0]);
-    if (chunkSource != null) roots.add(chunkSource);
-    Object chunkMap = get(chunkSource, "chunkMap");
-    if (chunkMap != null) roots.add(chunkMap);
-
-    Deque<Object> dq = new ArrayDeque<>(roots);
-    Set<Object> seen = Collections.newSetFromMap(new IdentityHashMap<>());
-
-    while (!dq.isEmpty() && owners.size() < limit) {
-      Object cur = dq.poll();
-      if (cur == null || seen.contains(cur)) continue;
-      seen.add(cur);
-
-      for (Field f : fields(cur, fld -> Map.class.isAssignableFrom(fld.getType()))) {
-        Object mapObj = getFieldValue(cur, f);
-        if (!(mapObj instanceof Map<?, ?> m)) continue;
-
-        int count = 0;
-        for (var e : m.entrySet()) {
-          if (count++ > cfg.maxMapScanEntries()) break;
-          Object k = e.getKey(), v = e.getValue();
-          if (uuid.equals(asUUID(k)) || uuid.equals(extractEntityUUID(v))) {
-            owners.add(cur.getClass().getName() + "#" + f.getName());
-            if (owners.size() >= limit) break;
-          }
-        }
-      }
-      for (Field f : fields(cur, fld ->
-          !fld.getType().isPrimitive()
-              && !Map.class.isAssignableFrom(fld.getType())
-              && !Collection.class.isAssignableFrom(fld.getType()))) {
-        Object nxt = getFieldValue(cur, f);
-        if (nxt != null && isAllowedPackage(nxt.getClass())) dq.add(nxt);
+  // -------- quarantine: detach through recorded owner entries --------
+
+  /** Owner keys of the entries {@code uuid} was last read from; empty if none were recorded. */
+  public List<String> linkOwners(UUID uuid) {
+    List<String> out = new ArrayList<>();
+    for (GhostLinks.Link l : links.get(uuid)) if (!out.contains(l.owner())) out.add(l.owner());
+    return out;
+  }
+
+  /**
+   * Removes {@code uuid} from the entries recorded when it was detected: one keyed lookup
+   * and remove per entry, no traversal and no field clearing. Each entry is re-checked to
+   * still hold {@code uuid} first, as entity ids are reused. Must run on the thread that
+   * owns the world's trackers. The links are consumed either way.
+   */
+  public Detach detach(World world, UUID uuid) {
+    List<GhostLinks.Link> recorded = links.get(uuid);
+    boolean any = false, stale = false, removed = false;
+    for (GhostLinks.Link l : recorded) {
+      if (!l.world().equals(world.getName())) continue;
+      any = true;
+      Map<?, ?> m = l.container().get();
+      if (m == null) { stale = true; continue; }
+      try {
+        Object v = m.get(l.key());
+        if (v == null && !m.containsKey(l.key())) continue; // already gone
+        if (!uuid.equals(asUUID(l.key())) && !uuid.equals(extractEntityUUID(v))) { stale = true; continue; }
+        m.remove(l.key());
+        removed = true;
+      } catch (RuntimeException e) {
+        stale = true;
       }
     }
-    return owners;
+    links.remove(uuid);
+    if (!any) return Detach.NO_LINKS;
+    if (stale) return Detach.STALE;
+    return removed ? Detach.DETACHED : Detach.GONE;
   }
 
   // -------- unlink (best-effort, version-agnostic) --------
 
-  public boolean unlinkFromOwners(World world, UUID uuid) {
-    Object sl = call(world, "getHandle", new Class<?>[0]);
-    if (sl == null) return false;
-    boolean changed = false;
-
-    List<Object> roots = new ArrayList<>();
-    roots.add(sl);
-    Object chunkSource = call(sl, "getChunkSource", new Class<?>[0]);
-    if (chunkSource != null) roots.add(chunkSource);
-    Object chunkMap = get(chunkSource, "chunkMap");
-    if (chunkMap != null) roots.add(chunkMap);
-
-    Deque<Object> dq = new ArrayDeque<>(roots);
-    Set<Object> seen = Collections.newSetFromMap(new IdentityHashMap<>());
-
-    while (!dq.isEmpty()) {
-      Object cur = dq.poll();
-      if (cur == null || seen.contains(cur)) continue;
-      seen.add(cur);
-
-      for (Field f : fields(cur, fld -> Map.class.isAssignableFrom(fld.getType()))) {
-        Object obj = getFieldValue(cur, f);
-        if (!(obj instanceof Map<?, ?> m)) continue;
-
-        List<Object> removeKeys = new ArrayList<>();
-        int scanned = 0;
-        for (var e : m.entrySet()) {
-          if (scanned++ > cfg.maxMapScanEntries()) break;
-          Object k = e.getKey(), v = e.getValue();
-          if (uuid.equals(asUUID(k)) || uuid.equals(extractEntityUUID(v))) {
-            removeKeys.add(k);
-            clearWatcherSets(v);
-          }
-        }
-        for (Object rk : removeKeys) {
-          try { m.remove(rk); changed = true; } catch (Throwable ignored) {}
-        }
+  /**
+   * Removes every entry holding {@code uuid} from the containers the world profile reads,
+   * in one walk; owners the ghost was found in are added to {@code ownersOut}. A walk cut
+   * short by the node budget, or with a container it could not read, may leave entries
+   * behind: what it removed is then {@link Unlink#PARTIAL}.
+   */
+  public Unlink unlinkFromOwners(World world, UUID uuid, List<String> ownersOut) {
+    PluginConfig cfg = this.cfg;
+    WorldProfile profile = cfg.profile(world.getName());
+    boolean[] changed = new boolean[1];
+    boolean[] skipped = new boolean[1];
+    TrackerTraversal.Stats stats = TrackerTraversal.walk(world, cfg.ownerMaxDepth(), cfg.traversalMaxNodes(), (cur, owner, m) -> {
+      if (!profile.readsContainer(owner)) return true;
+      List<Object> matches = new ArrayList<>(); // (key, value) pairs
+      int cap = scanCapFor(owner, profile.maxMapScanEntries());
+      int read = readContainer(m, targetedOffset(world, cur, owner, uuid, cap), cap, null, matches::clear, (k, v, pos) -> {
+        if (uuid.equals(asUUID(k)) || uuid.equals(extractEntityUUID(v))) { matches.add(k); matches.add(v); }
+        return true;
+      });
+      if (read < 0) { skipped[0] = true; return true; } // a concurrent writer won every attempt: leave this container alone
+      if (!matches.isEmpty() && ownersOut != null && !ownersOut.contains(owner)) ownersOut.add(owner);
+      for (int i = 0; i < matches.size(); i += 2) {
+        clearWatcherSets(matches.get(i + 1));
+        try { m.remove(matches.get(i)); changed[0] = true; } catch (Throwable ignored) {}
       }
-      for (Field f : fields(cur, fld ->
-          !fld.getType().isPrimitive()
-              && !Map.class.isAssignableFrom(fld.getType())
-              && !Collection.class.isAssignableFrom(fld.getType()))) {
-        Object nxt = getFieldValue(cur, f);
-        if (nxt != null && isAllowedPackage(nxt.getClass())) dq.add(nxt);
+      return true;
+    });
+    if (!changed[0]) return Unlink.FAILED;
+    return stats.truncated() || skipped[0] ? Unlink.PARTIAL : Unlink.UNLINKED;
+  }
+
+  /** Nodes budget hits across all traversals; non-zero means scan.traversal-max-nodes is too low. */
+  public long truncatedWalks() { return TrackerTraversal.truncatedWalks(); }
+
+  // -------- helpers --------
+
+  @FunctionalInterface
+  private interface EntryVisitor { boolean visit(Object key, Object value, int pos); } // false = stop early
+
+  // A sampled suspect may sit past the cap: start a targeted read near where the sampler saw it
+  private int targetedOffset(World world, Object owner, String ownerKey, UUID uuid, int cap) {
+    return cfg.scanSampling() ? sampler.hint(world.getName(), owner, ownerKey, uuid, cap) : 0;
+  }
+
+  /**
+   * Visits up to {@code cap} entries of {@code m} starting at position {@code from},
+   * wrapping round to the start. Positions are table slots for open-addressing maps
+   * ({@link SlotTable}), so a window costs about cap / load factor slot reads wherever it
+   * starts; other maps are iterated, and the entries before {@code from} are stepped over,
+   * so their windows cost O(from + cap). The visitor gets each entry's position.
+   * {@code span}, if given, receives the positions stepped and the positions in the table
+   * (slots, or entries when iterated), which is what the sampler advances by.
+   *
+   * A concurrent writer may surface as a ConcurrentModificationException, or as
+   * AIOOBE/NoSuchElementException from an unsynchronised rehash; either way only this
+   * container is affected. Anything else (a bug in the visitor) propagates. In optimistic
+   * mode the container's fingerprint is re-checked after the pass and the read retried
+   * (after {@code reset}) on any change. Returns the number of entries visited, or -1 if
+   * no attempt produced a consistent read.
+   */
+  private int readContainer(Map<?, ?> m, int from, int cap, int[] span, Runnable reset, EntryVisitor visitor) {
+    boolean validate = optimistic;
+    boolean full = cap >= m.size(); // a windowed read is guarded by sampled slots, keeping its cost near the window's
+    int attempts = validate ? 1 + Math.max(0, cfg.optimisticRetries()) : 1;
+    for (int a = 0; a < attempts; a++) {
+      if (a > 0) { reset.run(); optimisticRetries.incrementAndGet(); }
+      ContainerFingerprint before = validate ? ContainerFingerprint.of(m, full) : null;
+      int count;
+      try {
+        SlotTable table = SlotTable.of(m);
+        count = table != null ? readSlots(table, from, cap, span, visitor) : readIterated(m, from, cap, span, visitor);
+      } catch (ConcurrentModificationException | ArrayIndexOutOfBoundsException | NoSuchElementException concurrentWrite) {
+        continue;
       }
+      if (!validate || before.sameAs(ContainerFingerprint.of(m, full))) return count;
     }
-    return changed;
+    unreadableContainers.incrementAndGet();
+    return -1;
   }
 
-  // -------- helpers --------
+  private static int readSlots(SlotTable t, int from, int cap, int[] span, EntryVisitor visitor) {
+    int n = t.slots(), start = n == 0 ? 0 : Math.floorMod(from, n);
+    int count = 0, stepped = 0;
+    while (stepped < n && count < cap) {
+      int slot = (start + stepped++) % n;
+      if (!t.used(slot)) continue;
+      count++;
+      if (!visitor.visit(t.key(slot), t.value(slot), slot)) break;
+    }
+    if (span != null) { span[0] = stepped; span[1] = n; }
+    return count;
+  }
+
+  private static int readIterated(Map<?, ?> m, int from, int cap, int[] span, EntryVisitor visitor) {
+    int count = 0, index = 0;
+    boolean stopped = false;
+    for (var e : m.entrySet()) {
+      if (count >= cap) break;
+      if (index++ < from) continue;
+      count++;
+      if (!visitor.visit(e.getKey(), e.getValue(), index - 1)) { stopped = true; break; }
+    }
+    if (!stopped && from > 0 && count < cap) {
+      index = 0;
+      for (var e : m.entrySet()) {
+        if (count >= cap || index++ >= from) break;
+        count++;
+        if (!visitor.visit(e.getKey(), e.getValue(), index - 1)) break;
+      }
+    }
+    if (span != null) { span[0] = count; span[1] = m.size(); }
+    return count;
+  }
+
+  // "class#field" owner names, built once and interned so log events can carry them without allocating
+  private static final ClassValue<Map<Field, String>> OWNER_KEYS = new ClassValue<>() {
+    @Override protected Map<Field, String> computeValue(Class<?> c) { return new ConcurrentHashMap<>(); }
+  };
+
+  static String ownerKey(Class<?> owner, Field f) {
+    return OWNER_KEYS.get(owner).computeIfAbsent(f, k -> (owner.getName() + "#" + k.getName()).intern());
+  }
+
+  // Per-container override from limits.container-caps, matched on the owner key suffix
+  // so "ChunkMap#entityMap" covers "net.minecraft.server.level.ChunkMap#entityMap"
+  private int scanCapFor(String owner, int fallback) {
+    if (cfg.containerScanCaps().isEmpty()) return fallback;
+    int cap = resolvedCaps.computeIfAbsent(owner, o -> {
+      for (var e : cfg.containerScanCaps().entrySet()) {
+        if (PluginConfig.ownerMatches(o, e.getKey())) return e.getValue();
+      }
+      return -1;
+    });
+    return cap >= 0 ? cap : fallback;
+  }
 
   private static UUID asUUID(Object o) {
     if (o instanceof UUID u) return u;
@@ -292,7 +513,7 @@ public final class NmsIntrospector {
   }
 
   // Only traverse inside these package roots (avoid JDK internals)
-  private static boolean isAllowedPackage(Class<?> cls) {
+  static boolean isAllowedPackage(Class<?> cls) {
     String n = cls.getName();
     return n.startsWith("net.minecraft.")
         || n.startsWith("io.papermc.")
@@ -0,0 +1,14 @@
+package com.splatage.ghostbuster.reflect;
+
+import java.util.List;
+
+/**
+ * Owners a walk found holding an entity. {@code exhaustive} is false if traversal-max-nodes
+ * cut the walk short or a container could not be read, so an empty result proves nothing.
+ */
+public record OwnerSearch(List<String> owners, boolean exhaustive) {
+  public boolean found() { return !owners.isEmpty(); }
+
+  /** No owner holds the entity, as far as the containers the profile reads go. */
+  public boolean provenAbsent() { return owners.isEmpty() && exhaustive; }
+}
@@ -0,0 +1,157 @@
+package com.splatage.ghostbuster.reflect;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.*;
+
+/**
+ * Bounded estimate of the bytes a ghost keeps alive: walks the object graph
+ * reachable from the tracked value (entity, passengers, goal selectors, brain
+ * memories, inventories...) up to a node cap and sums cached shallow sizes.
+ * Shared server structures (levels, players, connections, registries) are
+ * treated as boundaries and neither counted nor entered.
+ *
+ * Sizes assume a 64-bit JVM with compressed oops; this is a ranking signal,
+ * not an exact heap measurement.
+ */
+public final class RetainedSizeEstimator {
+  private static final int HEADER = 12;
+  private static final int ARRAY_HEADER = 16;
+  private static final int REF = 4;
+  private static final int MAP_ENTRY = 32;   // HashMap.Node-sized overhead per entry
+  private static final int MAX_ELEMENTS = 256; // per container/array, keeps huge lists bounded
+
+  private static final ClassValue<Long> SHALLOW = new ClassValue<>() {
+    @Override protected Long computeValue(Class<?> c) { return computeShallow(c); }
+  };
+
+  private static final ClassValue<Field[]> REF_FIELDS = new ClassValue<>() {
+    @Override protected Field[] computeValue(Class<?> c) { return computeRefFields(c); }
+  };
+
+  private final int nodeCap;
+
+  public RetainedSizeEstimator(int nodeCap) { this.nodeCap = Math.max(1, nodeCap); }
+
+  public long estimate(Object root) {
+    if (root == null) return 0L;
+    Deque<Object> dq = new ArrayDeque<>();
+    Set<Object> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+    dq.add(root);
+    long bytes = 0L;
+    int nodes = 0;
+
+    while (!dq.isEmpty() && nodes < nodeCap) {
+      Object cur = dq.poll();
+      if (!seen.add(cur)) continue;
+      nodes++;
+      Class<?> c = cur.getClass();
+      bytes += shallowSize(cur);
+
+      if (c.isArray()) {
+        if (!c.getComponentType().isPrimitive()) {
+          Object[] arr = (Object[]) cur;
+          for (int i = 0, n = Math.min(arr.length, MAX_ELEMENTS); i < n; i++) offer(dq, nodeCap, arr[i]);
+        }
+      } else if (cur instanceof Map<?, ?> m && isJdkClass(c)) {
+        bytes += (long) m.size() * MAP_ENTRY;
+        try {
+          int i = 0;
+          for (var e : m.entrySet()) {
+            if (i++ >= MAX_ELEMENTS) break;
+            offer(dq, nodeCap, e.getKey());
+            offer(dq, nodeCap, e.getValue());
+          }
+        } catch (Throwable ignored) {}
+      } else if (cur instanceof Collection<?> col && isJdkClass(c)) {
+        bytes += (long) col.size() * REF;
+        try {
+          int i = 0;
+          for (Object o : col) {
+            if (i++ >= MAX_ELEMENTS) break;
+            offer(dq, nodeCap, o);
+          }
+        } catch (Throwable ignored) {}
+      } else if (NmsIntrospector.isAllowedPackage(c)) {
+        for (Field f : REF_FIELDS.get(c)) {
+          try { offer(dq, nodeCap, f.get(cur)); } catch (Throwable ignored) {}
+        }
+      }
+    }
+    return bytes;
+  }
+
+  public static long shallowSize(Object o) {
+    Class<?> c = o.getClass();
+    if (!c.isArray()) {
+      long s = SHALLOW.get(c);
+      if (o instanceof String str) s += align(ARRAY_HEADER + str.length());
+      return s;
+    }
+    Class<?> ct = c.getComponentType();
+    int elem = ct.isPrimitive() ? primitiveSize(ct) : REF;
+    return align(ARRAY_HEADER + (long) Array.getLength(o) * elem);
+  }
+
+  // The queue never holds more than the node cap, so wide graphs cost no more memory than deep ones
+  private static void offer(Deque<Object> dq, int nodeCap, Object o) {
+    if (o == null || dq.size() >= nodeCap || isBoundary(o.getClass())) return;
+    dq.add(o);
+  }
+
+  // Objects shared with the rest of the server: counting them would charge the
+  // whole world to every ghost that happens to reference it.
+  private static boolean isBoundary(Class<?> c) {
+    if (c.isEnum() || c == Class.class || Thread.class.isAssignableFrom(c)
+        || ClassLoader.class.isAssignableFrom(c)) return true;
+    String n = c.getSimpleName();
+    return n.contains("Level")
+        || n.endsWith("MinecraftServer")
+        || n.equals("DedicatedServer")
+        || n.contains("Player")
+        || n.contains("Connection")
+        || n.contains("ChunkMap")
+        || n.contains("Registry")
+        || n.contains("Holder")
+        || n.startsWith("Craft");
+  }
+
+  private static boolean isJdkClass(Class<?> c) {
+    String n = c.getName();
+    return n.startsWith("java.") || n.startsWith("jdk.") || n.startsWith("sun.");
+  }
+
+  private static long computeShallow(Class<?> c) {
+    long s = HEADER;
+    for (Class<?> k = c; k != null && k != Object.class; k = k.getSuperclass()) {
+      for (Field f : k.getDeclaredFields()) {
+        if (Modifier.isStatic(f.getModifiers())) continue;
+        Class<?> t = f.getType();
+        s += t.isPrimitive() ? primitiveSize(t) : REF;
+      }
+    }
+    return align(s);
+  }
+
+  private static Field[] computeRefFields(Class<?> c) {
+    List<Field> out = new ArrayList<>();
+    for (Class<?> k = c; k != null && k != Object.class; k = k.getSuperclass()) {
+      if (isJdkClass(k)) break;
+      for (Field f : k.getDeclaredFields()) {
+        if (Modifier.isStatic(f.getModifiers()) || f.getType().isPrimitive()) continue;
+        try { if (f.trySetAccessible()) out.add(f); } catch (Throwable ignored) {}
+      }
+    }
+    return out.toArray(new Field[0]);
+  }
+
+  private static int primitiveSize(Class<?> t) {
+    if (t == long.class || t == double.class) return 8;
+    if (t == int.class || t == float.class) return 4;
+    if (t == short.class || t == char.class) return 2;
+    return 1;
+  }
+
+  private static long align(long s) { return (s + 7) & ~7L; }
+}
@@ -0,0 +1,84 @@
+package com.splatage.ghostbuster.reflect;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+
+/**
+ * Direct slot access to an open-addressing map (fastutil's {@code key}/{@code value}
+ * arrays), so a window read can start at a slot instead of stepping an iterator past
+ * every entry before it. The arrays are read once: a rehash during the read leaves this
+ * view on the old table, which optimistic validation sees as a changed fingerprint.
+ * Maps without such arrays (JDK maps) get null and are read through their iterator.
+ */
+final class SlotTable {
+  private static final Field[] NONE = new Field[0];
+
+  // [0] key array, [1] value array, [2] boolean containsNullKey or null
+  private static final ClassValue<Field[]> FIELDS = new ClassValue<>() {
+    @Override protected Field[] computeValue(Class<?> c) { return probe(c); }
+  };
+
+  private final Object keys;
+  private final Object[] values;
+  private final int slots;
+  private final boolean nullSlot;   // the last slot is reserved for the null (0) key
+  private final boolean nullKeyUsed;
+
+  private SlotTable(Object keys, Object[] values, boolean nullSlot, boolean nullKeyUsed) {
+    this.keys = keys;
+    this.values = values;
+    this.slots = values.length;
+    this.nullSlot = nullSlot;
+    this.nullKeyUsed = nullKeyUsed;
+  }
+
+  static SlotTable of(Map<?, ?> m) {
+    Field[] f = FIELDS.get(m.getClass());
+    if (f.length == 0) return null;
+    try {
+      Object k = f[0].get(m);
+      if (!(f[1].get(m) instanceof Object[] v) || k == null || Array.getLength(k) != v.length) return null;
+      return new SlotTable(k, v, f[2] != null, f[2] != null && f[2].getBoolean(m));
+    } catch (Throwable t) {
+      return null;
+    }
+  }
+
+  int slots() { return slots; }
+
+  boolean used(int i) {
+    if (nullSlot && i == slots - 1) return nullKeyUsed;
+    if (keys instanceof int[] a) return a[i] != 0;
+    if (keys instanceof long[] a) return a[i] != 0L;
+    return ((Object[]) keys)[i] != null;
+  }
+
+  Object key(int i) {
+    if (keys instanceof int[] a) return a[i];
+    if (keys instanceof long[] a) return a[i];
+    return ((Object[]) keys)[i];
+  }
+
+  Object value(int i) { return values[i]; }
+
+  private static Field[] probe(Class<?> c) {
+    Field key = null, value = null, nullKey = null;
+    for (Class<?> k = c; k != null && k != Object.class; k = k.getSuperclass()) {
+      for (Field f : k.getDeclaredFields()) {
+        if (Modifier.isStatic(f.getModifiers())) continue;
+        Class<?> t = f.getType();
+        String n = f.getName();
+        if (key == null && n.equals("key") && (t == int[].class || t == long[].class || t == Object[].class)) key = accessible(f);
+        if (value == null && n.equals("value") && t == Object[].class) value = accessible(f);
+        if (nullKey == null && n.equals("containsNullKey") && t == boolean.class) nullKey = accessible(f);
+      }
+    }
+    return key != null && value != null ? new Field[] { key, value, nullKey } : NONE;
+  }
+
+  private static Field accessible(Field f) {
+    try { return f.trySetAccessible() ? f : null; } catch (Throwable t) { return null; }
+  }
+}
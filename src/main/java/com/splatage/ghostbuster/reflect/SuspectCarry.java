@@ -0,0 +1,59 @@
+package com.splatage.ghostbuster.reflect;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ghost suspects each container held when it was last read. A snapshot that could not
+ * read every container (traversal budget, a node-capped walk, a torn optimistic read)
+ * reports the unread containers' suspects again, so hysteresis keeps counting them
+ * instead of decaying them until the rotation reaches their container. A complete
+ * snapshot drops the containers it no longer reads.
+ */
+final class SuspectCarry {
+  private record Key(String world, String owner, int ownerIdentity) {}
+
+  private record Entry(WeakReference<Map<?, ?>> container, UUID[] suspects, long scan) {}
+
+  private static final UUID[] NONE = new UUID[0];
+
+  private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+  private final Map<String, AtomicLong> scans = new ConcurrentHashMap<>();
+
+  void beginScan(String world) { scans.computeIfAbsent(world, k -> new AtomicLong()).incrementAndGet(); }
+
+  /** {@code m} was read this scan and held {@code suspects}. */
+  void read(String world, Object owner, String ownerKey, Map<?, ?> m, Collection<UUID> suspects) {
+    entries.put(new Key(world, ownerKey, System.identityHashCode(owner)),
+        new Entry(new WeakReference<>(m), suspects.isEmpty() ? NONE : suspects.toArray(NONE), scan(world)));
+  }
+
+  /**
+   * Ends the scan of {@code world}: if it was incomplete, the suspects of its containers
+   * not read this scan; if complete, those containers are forgotten and nothing is returned.
+   */
+  List<UUID> unread(String world, boolean complete) {
+    long now = scan(world);
+    List<UUID> out = new ArrayList<>();
+    entries.entrySet().removeIf(e -> {
+      if (!e.getKey().world().equals(world) || e.getValue().scan() == now) return false;
+      if (complete || e.getValue().container().get() == null) return true;
+      for (UUID u : e.getValue().suspects()) out.add(u);
+      return false;
+    });
+    return out;
+  }
+
+  void clear() { entries.clear(); }
+
+  private long scan(String world) {
+    AtomicLong s = scans.get(world);
+    return s == null ? 0L : s.get();
+  }
+}
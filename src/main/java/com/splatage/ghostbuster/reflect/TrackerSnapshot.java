@@ -0,0 +1,12 @@
+package com.splatage.ghostbuster.reflect;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * UUIDs read from a world's tracker containers; {@code complete} is false if the traversal
+ * budget or traversal-max-nodes cut the walk short, or a container could not be read.
+ * {@code full} additionally means no container was capped or read through a sampling window,
+ * so a UUID missing from {@code uuids} was in none of them.
+ */
+public record TrackerSnapshot(Set<UUID> uuids, boolean complete, boolean full) {}
@@ -0,0 +1,196 @@
+package com.splatage.ghostbuster.reflect;
+
+import org.bukkit.World;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.splatage.ghostbuster.reflect.Reflectors.*;
+
+/**
+ * The one breadth-first walk over a world's tracking structures. Starts at the level
+ * roots (ServerLevel, its chunk source and chunk map), follows plain reference fields
+ * into server packages only, and offers every Map-typed field it passes to each visitor
+ * still interested, so several operations share a single pass.
+ *
+ * Cost is bounded up front: objects more than {@code maxDepth} hops from the roots, or
+ * beyond the first {@code maxNodes}, are not entered. Per-class field lists are resolved
+ * once; the queue and seen-set are pooled per thread, the set cleared by bumping an epoch.
+ */
+final class TrackerTraversal {
+  @FunctionalInterface
+  interface Visitor {
+    /** Offered each reachable container once per walk; false means this visitor is done. */
+    boolean visit(Object owner, String ownerKey, Map<?, ?> container);
+  }
+
+  /** Objects entered, deepest level reached, and whether the node budget cut the walk short. */
+  record Stats(int nodes, int depth, boolean truncated) {}
+
+  // Per class: [0] Map-typed fields, [1] reference fields to follow; superclasses up to the JDK included
+  private static final ClassValue<Field[][]> FIELDS = new ClassValue<>() {
+    @Override protected Field[][] computeValue(Class<?> c) {
+      List<Field> maps = new ArrayList<>(), refs = new ArrayList<>();
+      for (Class<?> k = c; k != null && k != Object.class && !isJdk(k); k = k.getSuperclass()) {
+        for (Field f : k.getDeclaredFields()) {
+          Class<?> t = f.getType();
+          boolean map = Map.class.isAssignableFrom(t);
+          if (!map && (t.isPrimitive() || Collection.class.isAssignableFrom(t))) continue;
+          try {
+            if (!f.trySetAccessible()) continue;
+          } catch (RuntimeException e) {
+            continue;
+          }
+          (map ? maps : refs).add(f);
+        }
+      }
+      return new Field[][] { maps.toArray(new Field[0]), refs.toArray(new Field[0]) };
+    }
+  };
+
+  private static final ThreadLocal<Pool> POOL = ThreadLocal.withInitial(Pool::new);
+  private static final AtomicLong truncatedWalks = new AtomicLong();
+
+  private TrackerTraversal() {}
+
+  static long truncatedWalks() { return truncatedWalks.get(); }
+
+  static Stats walk(World world, int maxDepth, int maxNodes, Visitor... visitors) {
+    Object sl = call(world, "getHandle", new Class<?>[0]); // ServerLevel
+    if (sl == null) return new Stats(0, 0, false);
+    Object chunkSource = call(sl, "getChunkSource", new Class<?>[0]);
+    Object chunkMap = get(chunkSource, "chunkMap");
+
+    Pool pool = POOL.get();
+    // A visitor that walks again from inside a walk gets a pool of its own
+    if (pool.busy) pool = new Pool();
+    pool.begin();
+    try {
+      return pool.run(new Object[] { sl, chunkSource, chunkMap }, Math.max(0, maxDepth), Math.max(1, maxNodes), visitors);
+    } finally {
+      pool.end();
+    }
+  }
+
+  // Fields were made accessible when cached
+  private static Object read(Object target, Field f) {
+    try {
+      return f.get(target);
+    } catch (IllegalAccessException | RuntimeException e) {
+      return null;
+    }
+  }
+
+  private static boolean isJdk(Class<?> c) {
+    String n = c.getName();
+    return n.startsWith("java.") || n.startsWith("jdk.") || n.startsWith("sun.");
+  }
+
+  /**
+   * Queue and identity seen-set reused across walks on one thread. A slot is occupied only
+   * if its stamp equals the current epoch, so starting a walk clears the set in O(1); the
+   * references a walk stored are nulled when it ends so the pool never pins server objects.
+   */
+  private static final class Pool {
+    private Object[] queue = new Object[256];
+    private Object[] keys = new Object[1024];
+    private int[] stamps = new int[1024];
+    private int[] used = new int[256];
+    private int usedCount, size, epoch;
+    boolean busy;
+
+    void begin() {
+      busy = true;
+      if (++epoch == 0) { // wrapped: stale stamps could match again
+        Arrays.fill(stamps, 0);
+        epoch = 1;
+      }
+      size = 0;
+      usedCount = 0;
+    }
+
+    void end() {
+      for (int i = 0; i < usedCount; i++) keys[used[i]] = null;
+      busy = false;
+    }
+
+    Stats run(Object[] roots, int maxDepth, int maxNodes, Visitor[] visitors) {
+      boolean[] done = new boolean[visitors.length];
+      int active = visitors.length;
+      int head = 0, tail = 0, nodes = 0, depth = 0;
+      boolean truncated = false;
+      for (Object r : roots) if (r != null) { ensureQueue(tail + 1); queue[tail++] = r; }
+
+      while (head < tail && active > 0) {
+        int levelEnd = tail;
+        for (; head < levelEnd && active > 0; head++) {
+          Object cur = queue[head];
+          queue[head] = null;
+          if (!add(cur)) continue;
+          if (nodes++ >= maxNodes) { truncated = true; active = 0; break; }
+
+          Field[][] fs = FIELDS.get(cur.getClass());
+          for (Field f : fs[0]) {
+            if (!(read(cur, f) instanceof Map<?, ?> m)) continue;
+            String owner = NmsIntrospector.ownerKey(cur.getClass(), f);
+            for (int v = 0; v < visitors.length; v++) {
+              if (done[v]) continue;
+              if (!visitors[v].visit(cur, owner, m)) { done[v] = true; active--; }
+            }
+            if (active == 0) break;
+          }
+          if (active == 0 || depth >= maxDepth) continue;
+          for (Field f : fs[1]) {
+            Object nxt = read(cur, f);
+            if (nxt != null && NmsIntrospector.isAllowedPackage(nxt.getClass())) {
+              ensureQueue(tail + 1);
+              queue[tail++] = nxt;
+            }
+          }
+        }
+        if (head < tail) depth++;
+      }
+      for (int i = head; i < tail; i++) queue[i] = null; // left over when every visitor finished early
+      if (truncated) truncatedWalks.incrementAndGet();
+      return new Stats(nodes, depth, truncated);
+    }
+
+    // Open addressing on identity hash; false if already seen this epoch
+    private boolean add(Object o) {
+      if ((size + 1) * 2 > keys.length) grow();
+      int mask = keys.length - 1;
+      for (int i = System.identityHashCode(o) & mask; ; i = (i + 1) & mask) {
+        if (stamps[i] != epoch) {
+          keys[i] = o;
+          stamps[i] = epoch;
+          if (usedCount == used.length) used = Arrays.copyOf(used, used.length * 2);
+          used[usedCount++] = i;
+          size++;
+          return true;
+        }
+        if (keys[i] == o) return false;
+      }
+    }
+
+    private void grow() {
+      Object[] live = new Object[size];
+      for (int i = 0; i < usedCount; i++) live[i] = keys[used[i]];
+      for (int i = 0; i < usedCount; i++) keys[used[i]] = null;
+      keys = new Object[keys.length * 2];
+      stamps = new int[keys.length];
+      used = new int[Math.max(used.length, keys.length / 2)];
+      usedCount = 0;
+      size = 0;
+      for (Object o : live) add(o);
+    }
+
+    private void ensureQueue(int n) {
+      if (n > queue.length) queue = Arrays.copyOf(queue, queue.length * 2);
+    }
+  }
+}
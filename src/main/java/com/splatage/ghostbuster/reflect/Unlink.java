@@ -0,0 +1,11 @@
+package com.splatage.ghostbuster.reflect;
+
+/** Result of removing a ghost from every owner one walk reaches. */
+public enum Unlink {
+  /** Entries were removed and the walk read every container it could reach. */
+  UNLINKED,
+  /** Entries were removed, but the walk was cut short or a container could not be read: some may remain. */
+  PARTIAL,
+  /** Nothing was removed. */
+  FAILED
+}
@@ -0,0 +1,37 @@
+package com.splatage.ghostbuster.report;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One server's ghost owners and scan cost over a reporting period. Reports from many
+ * servers are merged offline (see the fleet module), so everything here is a sum, count
+ * or maximum that stays meaningful when added across periods and servers.
+ */
+public record FleetReport(String server, String pluginVersion, String serverVersion,
+                          long periodStartMillis, long periodEndMillis,
+                          List<World> worlds, List<Owner> owners) {
+
+  /** Scan cost for one world over the period. */
+  public record World(String name, int scans, long scanNanos, long maxScanNanos, int maxTracked,
+                      long ghosts, long stable, long unlinks) {}
+
+  /**
+   * One owner container. {@code sightings} counts every ghost report naming it;
+   * {@code ghosts} and {@code estimatedBytes} count each ghost once per period.
+   * {@code entityTypes} maps entity type to distinct ghosts of that type.
+   */
+  public record Owner(long fingerprint, String owner, long sightings, int ghosts, long estimatedBytes,
+                      long dryRuns, long unlinked, long failed, Map<String, Long> entityTypes) {}
+
+  /** Stable 64-bit FNV-1a of the "class#field" owner key, identical on every server and JVM. */
+  public static long fingerprint(String owner) {
+    long h = 0xcbf29ce484222325L;
+    for (byte b : owner.getBytes(StandardCharsets.UTF_8)) {
+      h ^= b & 0xFF;
+      h *= 0x100000001b3L;
+    }
+    return h;
+  }
+}
@@ -0,0 +1,24 @@
+package com.splatage.ghostbuster.report;
+
+/**
+ * Fleet report layout, big-endian (DataOutput). Strings are DataOutput UTF; collections
+ * are an int count followed by elements. Worlds come before owners so a reader can stream
+ * owners without holding the report.
+ *
+ * <pre>
+ * header  magic:int version:short server:str pluginVersion:str serverVersion:str
+ *         periodStartMillis:long periodEndMillis:long
+ * worlds  count:int { name:str scans:int scanNanos:long maxScanNanos:long maxTracked:int
+ *         ghosts:long stable:long unlinks:long }
+ * owners  count:int { fingerprint:long owner:str sightings:long ghosts:int estimatedBytes:long
+ *         dryRuns:long unlinked:long failed:long types:int { type:str ghosts:long } }
+ * </pre>
+ */
+final class ReportFormat {
+  static final int MAGIC = 0x47424652; // "GBFR"
+  static final short VERSION = 1;
+
+  static final String SUFFIX = ".gbr";
+
+  private ReportFormat() {}
+}
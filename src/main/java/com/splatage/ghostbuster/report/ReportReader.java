@@ -0,0 +1,81 @@
+package com.splatage.ghostbuster.report;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Streams a fleet report: the header and worlds are read on open, owners one at a time
+ * through {@link #nextOwner()}, so merging never holds more than one owner per file.
+ */
+public final class ReportReader implements Closeable {
+  private final DataInputStream in;
+  private final String server, pluginVersion, serverVersion;
+  private final long periodStartMillis, periodEndMillis;
+  private final List<FleetReport.World> worlds;
+  private int ownersLeft;
+
+  public ReportReader(Path path) throws IOException {
+    this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 1 << 16));
+    try {
+      if (in.readInt() != ReportFormat.MAGIC) throw new IOException(path + " is not a GhostBuster report");
+      short version = in.readShort();
+      if (version != ReportFormat.VERSION) throw new IOException(path + ": unsupported report version " + version);
+      server = in.readUTF();
+      pluginVersion = in.readUTF();
+      serverVersion = in.readUTF();
+      periodStartMillis = in.readLong();
+      periodEndMillis = in.readLong();
+      int n = in.readInt();
+      List<FleetReport.World> ws = new ArrayList<>(n);
+      for (int i = 0; i < n; i++) {
+        ws.add(new FleetReport.World(in.readUTF(), in.readInt(), in.readLong(), in.readLong(), in.readInt(),
+            in.readLong(), in.readLong(), in.readLong()));
+      }
+      worlds = List.copyOf(ws);
+      ownersLeft = in.readInt();
+    } catch (IOException | RuntimeException e) {
+      in.close();
+      throw e;
+    }
+  }
+
+  /** Whether {@code path} is named like a report; the CLI uses this to pick files from a directory. */
+  public static boolean isReport(Path path) {
+    return path.getFileName().toString().endsWith(ReportFormat.SUFFIX);
+  }
+
+  public String server() { return server; }
+  public String pluginVersion() { return pluginVersion; }
+  public String serverVersion() { return serverVersion; }
+  public long periodStartMillis() { return periodStartMillis; }
+  public long periodEndMillis() { return periodEndMillis; }
+  public List<FleetReport.World> worlds() { return worlds; }
+
+  /** The next owner, or null after the last one. */
+  public FleetReport.Owner nextOwner() throws IOException {
+    if (ownersLeft <= 0) return null;
+    ownersLeft--;
+    long fingerprint = in.readLong();
+    String owner = in.readUTF();
+    long sightings = in.readLong();
+    int ghosts = in.readInt();
+    long bytes = in.readLong(), dry = in.readLong(), unlinked = in.readLong(), failed = in.readLong();
+    int n = in.readInt();
+    Map<String, Long> types = new LinkedHashMap<>(Math.max(4, n * 2));
+    for (int i = 0; i < n; i++) types.put(in.readUTF(), in.readLong());
+    return new FleetReport.Owner(fingerprint, owner, sightings, ghosts, bytes, dry, unlinked, failed, types);
+  }
+
+  public FleetReport readAll() throws IOException {
+    List<FleetReport.Owner> owners = new ArrayList<>();
+    for (FleetReport.Owner o; (o = nextOwner()) != null; ) owners.add(o);
+    return new FleetReport(server, pluginVersion, serverVersion, periodStartMillis, periodEndMillis, worlds, owners);
+  }
+
+  @Override public void close() throws IOException { in.close(); }
+}
@@ -0,0 +1,67 @@
+package com.splatage.ghostbuster.report;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+
+/** Writes {@link FleetReport}s; a report appears under its final name only once complete. */
+public final class ReportWriter {
+  private ReportWriter() {}
+
+  /** Writes {@code r} into {@code dir} as {@code <server>-<periodEnd>.gbr} and returns the file. */
+  public static Path write(FleetReport r, Path dir) throws IOException {
+    Files.createDirectories(dir);
+    Path file = dir.resolve(safe(r.server()) + "-" + r.periodEndMillis() + ReportFormat.SUFFIX);
+    Path tmp = dir.resolve(file.getFileName() + ".tmp");
+    try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16))) {
+      out.writeInt(ReportFormat.MAGIC);
+      out.writeShort(ReportFormat.VERSION);
+      out.writeUTF(r.server());
+      out.writeUTF(r.pluginVersion());
+      out.writeUTF(r.serverVersion());
+      out.writeLong(r.periodStartMillis());
+      out.writeLong(r.periodEndMillis());
+
+      out.writeInt(r.worlds().size());
+      for (FleetReport.World w : r.worlds()) {
+        out.writeUTF(w.name());
+        out.writeInt(w.scans());
+        out.writeLong(w.scanNanos());
+        out.writeLong(w.maxScanNanos());
+        out.writeInt(w.maxTracked());
+        out.writeLong(w.ghosts());
+        out.writeLong(w.stable());
+        out.writeLong(w.unlinks());
+      }
+
+      out.writeInt(r.owners().size());
+      for (FleetReport.Owner o : r.owners()) {
+        out.writeLong(o.fingerprint());
+        out.writeUTF(o.owner());
+        out.writeLong(o.sightings());
+        out.writeInt(o.ghosts());
+        out.writeLong(o.estimatedBytes());
+        out.writeLong(o.dryRuns());
+        out.writeLong(o.unlinked());
+        out.writeLong(o.failed());
+        out.writeInt(o.entityTypes().size());
+        for (Map.Entry<String, Long> t : o.entityTypes().entrySet()) {
+          out.writeUTF(t.getKey());
+          out.writeLong(t.getValue());
+        }
+      }
+    }
+    // A merge run picking up the directory never sees a half-written report
+    Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    return file;
+  }
+
+  private static String safe(String server) {
+    String s = server.replaceAll("[^A-Za-z0-9._-]", "_");
+    return s.isEmpty() ? "server" : s;
+  }
+}
@@ -0,0 +1,35 @@
+package com.splatage.ghostbuster.trace;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Inputs and outputs of one periodic scan: the live index, and per world the tracked
+ * UUIDs, hysteresis counters before the scan, ghosts, stable ghosts, retained-size
+ * estimates of the stable ones and the ghosts picked for unlinking. Worlds appear in the
+ * order their unlink budget was taken, which the rate limiter depends on.
+ */
+public record ScanTrace(
+    long seq,
+    long epochMillis,
+    long decidedAtMillis,
+    int maxUnlinksPerTick,
+    int maxUnlinksPerMinute,
+    long limiterWindow,
+    int limiterUsed,
+    Collection<UUID> live,
+    List<World> worlds
+) {
+  public record World(
+      String name,
+      int hysteresisCycles,
+      Collection<UUID> tracked,
+      Map<UUID, Integer> hysteresisBefore,
+      List<UUID> ghosts,
+      List<UUID> stable,
+      Map<UUID, Long> estimatedBytes,
+      List<UUID> selected
+  ) {}
+}
@@ -0,0 +1,27 @@
+package com.splatage.ghostbuster.trace;
+
+/**
+ * Binary trace layout, big-endian. File header: magic, version. Then records, each a
+ * type byte followed by its fields; collections are an int count followed by elements,
+ * UUIDs are two longs, strings are an unsigned-short byte length and UTF-8 bytes.
+ *
+ * <pre>
+ * SCAN   seq:long epochMillis:long decidedAtMillis:long
+ *        maxPerTick:int maxPerMinute:int limiterWindow:long limiterUsed:int
+ *        live:uuid[] worlds:int { name:str hysteresisCycles:int tracked:uuid[] hysteresis:{uuid int}[]
+ *        ghosts:uuid[] stable:uuid[] estimatedBytes:{uuid long}[] selected:uuid[] }
+ * UNLINK seq:long epochMillis:long world:str id:uuid source:str outcome:byte
+ * </pre>
+ *
+ * Version 1 had one {@code hysteresisCycles:int} after {@code decidedAtMillis} instead of
+ * one per world; readers still accept it.
+ */
+final class TraceFormat {
+  static final int MAGIC = 0x47425452; // "GBTR"
+  static final short VERSION = 2;
+
+  static final byte SCAN = 1;
+  static final byte UNLINK = 2;
+
+  private TraceFormat() {}
+}
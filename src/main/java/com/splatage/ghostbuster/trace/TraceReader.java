@@ -0,0 +1,140 @@
+package com.splatage.ghostbuster.trace;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Streams records back out of a trace file. A file cut off mid-record (server killed
+ * while recording) ends cleanly at the last complete record; {@link #truncated()} says so.
+ */
+public final class TraceReader implements Closeable {
+  private final FileChannel channel;
+  private final ByteBuffer buf = ByteBuffer.allocateDirect(1 << 20);
+  private final short version;
+  private boolean truncated;
+
+  public TraceReader(Path path) throws IOException {
+    this.channel = FileChannel.open(path, StandardOpenOption.READ);
+    buf.flip();
+    need(6);
+    if (buf.getInt() != TraceFormat.MAGIC) throw new IOException(path + " is not a GhostBuster trace");
+    version = buf.getShort();
+    if (version < 1 || version > TraceFormat.VERSION) throw new IOException(path + ": unsupported trace version " + version);
+  }
+
+  public boolean truncated() { return truncated; }
+
+  /** The next {@link ScanTrace} or {@link UnlinkTrace}, or null at the end of the trace. */
+  public Object next() throws IOException {
+    try {
+      if (!fill(1)) return null;
+      byte type = buf.get();
+      return switch (type) {
+        case TraceFormat.SCAN -> readScan();
+        case TraceFormat.UNLINK -> readUnlink();
+        default -> throw new IOException("unknown trace record type " + type);
+      };
+    } catch (EOFException e) {
+      truncated = true;
+      return null;
+    }
+  }
+
+  public List<Object> readAll() throws IOException {
+    List<Object> out = new ArrayList<>();
+    for (Object r; (r = next()) != null; ) out.add(r);
+    return out;
+  }
+
+  private ScanTrace readScan() throws IOException {
+    need(8 * 3 + 4 * 2 + 8 + 4 + (version == 1 ? 4 : 0));
+    long seq = buf.getLong(), epoch = buf.getLong(), decidedAt = buf.getLong();
+    int sharedCycles = 0;
+    if (version == 1) sharedCycles = buf.getInt(); // v1: one hysteresis setting for all worlds
+    int perTick = buf.getInt(), perMinute = buf.getInt();
+    long window = buf.getLong();
+    int used = buf.getInt();
+    List<UUID> live = uuids();
+    need(4);
+    int worlds = buf.getInt();
+    List<ScanTrace.World> ws = new ArrayList<>(worlds);
+    for (int i = 0; i < worlds; i++) {
+      String name = string();
+      int cycles = sharedCycles;
+      if (version >= 2) { need(4); cycles = buf.getInt(); }
+      List<UUID> tracked = uuids();
+      need(4);
+      int n = buf.getInt();
+      Map<UUID, Integer> hysteresis = new HashMap<>(n * 2);
+      for (int j = 0; j < n; j++) { need(20); hysteresis.put(uuid(), buf.getInt()); }
+      List<UUID> ghosts = uuids();
+      List<UUID> stable = uuids();
+      need(4);
+      n = buf.getInt();
+      Map<UUID, Long> bytes = new HashMap<>(n * 2);
+      for (int j = 0; j < n; j++) { need(24); bytes.put(uuid(), buf.getLong()); }
+      ws.add(new ScanTrace.World(name, cycles, tracked, hysteresis, ghosts, stable, bytes, uuids()));
+    }
+    return new ScanTrace(seq, epoch, decidedAt, perTick, perMinute, window, used, live, ws);
+  }
+
+  private UnlinkTrace readUnlink() throws IOException {
+    need(16);
+    long seq = buf.getLong(), epoch = buf.getLong();
+    String world = string();
+    need(16);
+    UUID id = uuid();
+    String source = string();
+    need(1);
+    int outcome = buf.get();
+    UnlinkTrace.Outcome[] all = UnlinkTrace.Outcome.values();
+    if (outcome < 0 || outcome >= all.length) throw new IOException("unknown unlink outcome " + outcome);
+    return new UnlinkTrace(seq, epoch, world, id, source, all[outcome]);
+  }
+
+  private List<UUID> uuids() throws IOException {
+    need(4);
+    int n = buf.getInt();
+    List<UUID> out = new ArrayList<>(n);
+    for (int i = 0; i < n; i++) { need(16); out.add(uuid()); }
+    return out;
+  }
+
+  private UUID uuid() { return new UUID(buf.getLong(), buf.getLong()); }
+
+  private String string() throws IOException {
+    need(2);
+    int n = buf.getShort() & 0xFFFF;
+    need(n);
+    byte[] b = new byte[n];
+    buf.get(b);
+    return new String(b, StandardCharsets.UTF_8);
+  }
+
+  private void need(int bytes) throws IOException {
+    if (!fill(bytes)) throw new EOFException();
+  }
+
+  // Tops the buffer up to at least {@code bytes} readable; false at end of file
+  private boolean fill(int bytes) throws IOException {
+    if (buf.remaining() >= bytes) return true;
+    buf.compact();
+    try {
+      while (buf.position() < bytes) {
+        if (channel.read(buf) < 0) return false;
+      }
+    } finally {
+      buf.flip();
+    }
+    return true;
+  }
+
+  @Override public void close() throws IOException { channel.close(); }
+}
@@ -0,0 +1,216 @@
+package com.splatage.ghostbuster.trace;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Appends {@link ScanTrace} and {@link UnlinkTrace} records to a binary trace file.
+ * Callers hand over collections they no longer mutate; encoding and the channel writes
+ * run on one background thread through a direct buffer. If the writer falls behind,
+ * records are dropped and counted rather than blocking the scan.
+ */
+public final class TraceRecorder {
+  private static final int BUFFER_BYTES = 1 << 20;
+  private static final int QUEUED_RECORDS = 64;
+
+  private final Logger log;
+  private final AtomicLong dropped = new AtomicLong();
+  private final AtomicLong seq = new AtomicLong();
+
+  private volatile ThreadPoolExecutor writer;
+  private volatile ThreadPoolExecutor stopped; // the last writer; a new trace waits until it has exited
+  private volatile Path file;
+
+  // writer thread only (set up by start() before the writer exists); stop() may close it on a timeout
+  private volatile FileChannel channel;
+  private ByteBuffer buf; // allocated by the first start(): most servers never record a trace
+  private long written, maxBytes;
+
+  public TraceRecorder(Logger log) { this.log = log; }
+
+  public boolean active() { return writer != null; }
+
+  public Path file() { return file; }
+
+  public long dropped() { return dropped.get(); }
+
+  /** Scan sequence the next {@link #recordScan} will carry; unlink records carry the latest. */
+  public long nextSeq() { return seq.get() + 1; }
+
+  public synchronized void start(Path path, long maxBytes) throws IOException {
+    if (writer != null) throw new IllegalStateException("already recording to " + file);
+    ThreadPoolExecutor last = stopped;
+    if (last != null && !last.isTerminated()) throw new IllegalStateException("still closing " + file);
+    Files.createDirectories(path.toAbsolutePath().getParent());
+    channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+        StandardOpenOption.TRUNCATE_EXISTING);
+    this.maxBytes = maxBytes;
+    written = 0;
+    if (buf == null) buf = ByteBuffer.allocateDirect(BUFFER_BYTES);
+    buf.clear();
+    buf.putInt(TraceFormat.MAGIC).putShort(TraceFormat.VERSION);
+    file = path;
+    ThreadPoolExecutor w = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(QUEUED_RECORDS), r -> {
+          Thread t = new Thread(r, "GhostBuster-TraceWriter");
+          t.setDaemon(true);
+          return t;
+        }, (r, ex) -> dropped.incrementAndGet());
+    writer = w;
+  }
+
+  /** Stops recording once queued records are written; the file is closed either way. */
+  public synchronized void stop() {
+    ThreadPoolExecutor w = writer;
+    if (w == null) return;
+    writer = null;
+    stopped = w;
+    w.shutdown();
+    boolean finished = false;
+    try {
+      finished = w.awaitTermination(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      if (finished) {
+        closeQuietly();
+      } else {
+        // The writer is stuck mid-write: interrupt it and close the channel under it, without the buffer
+        w.shutdownNow();
+        FileChannel c = channel;
+        if (c != null) try { c.close(); } catch (IOException ignored) {}
+        log.warning("trace: writer did not finish within 5s; " + file + " closed, may end mid-record");
+      }
+    }
+  }
+
+  public void recordScan(ScanTrace trace) {
+    seq.set(trace.seq());
+    submit(() -> writeScan(trace));
+  }
+
+  public void recordUnlink(String world, UUID id, String source, UnlinkTrace.Outcome outcome) {
+    if (writer == null) return; // called on every prune: allocate nothing unless recording
+    UnlinkTrace t = new UnlinkTrace(seq.get(), System.currentTimeMillis(), world, id, source, outcome);
+    submit(() -> writeUnlink(t));
+  }
+
+  private void submit(IoTask task) {
+    ThreadPoolExecutor w = writer;
+    if (w == null) return;
+    w.execute(() -> {
+      if (channel == null) return;
+      try {
+        task.run();
+        if (written + buf.position() > maxBytes) {
+          log.warning("trace: " + file + " reached its size limit; recording stopped");
+          closeQuietly();
+          writer = null;
+          w.shutdown();
+        }
+      } catch (IOException e) {
+        log.warning("trace: write failed (" + e.getMessage() + "); recording stopped");
+        closeQuietly();
+        writer = null;
+        w.shutdown();
+      }
+    });
+  }
+
+  @FunctionalInterface
+  private interface IoTask { void run() throws IOException; }
+
+  private void writeScan(ScanTrace t) throws IOException {
+    ensure(1 + 8 * 3 + 4 * 2 + 8 + 4);
+    buf.put(TraceFormat.SCAN).putLong(t.seq()).putLong(t.epochMillis()).putLong(t.decidedAtMillis())
+        .putInt(t.maxUnlinksPerTick()).putInt(t.maxUnlinksPerMinute())
+        .putLong(t.limiterWindow()).putInt(t.limiterUsed());
+    putUuids(t.live());
+    ensure(4);
+    buf.putInt(t.worlds().size());
+    for (ScanTrace.World w : t.worlds()) {
+      putString(w.name());
+      ensure(4);
+      buf.putInt(w.hysteresisCycles());
+      putUuids(w.tracked());
+      ensure(4);
+      buf.putInt(w.hysteresisBefore().size());
+      for (Map.Entry<UUID, Integer> e : w.hysteresisBefore().entrySet()) {
+        ensure(20);
+        putUuid(e.getKey());
+        buf.putInt(e.getValue());
+      }
+      putUuids(w.ghosts());
+      putUuids(w.stable());
+      ensure(4);
+      buf.putInt(w.estimatedBytes().size());
+      for (Map.Entry<UUID, Long> e : w.estimatedBytes().entrySet()) {
+        ensure(24);
+        putUuid(e.getKey());
+        buf.putLong(e.getValue());
+      }
+      putUuids(w.selected());
+    }
+    drain();
+  }
+
+  private void writeUnlink(UnlinkTrace t) throws IOException {
+    ensure(1 + 8 + 8);
+    buf.put(TraceFormat.UNLINK).putLong(t.seq()).putLong(t.epochMillis());
+    putString(t.world());
+    ensure(16);
+    putUuid(t.id());
+    putString(t.source());
+    ensure(1);
+    buf.put((byte) t.outcome().ordinal());
+    // Unlinks are small and frequent: only go to the channel once the buffer is half full
+    if (buf.position() >= BUFFER_BYTES / 2) drain();
+  }
+
+  private void putUuids(Collection<UUID> ids) throws IOException {
+    ensure(4);
+    buf.putInt(ids.size());
+    for (UUID u : ids) { ensure(16); putUuid(u); }
+  }
+
+  private void putUuid(UUID u) {
+    buf.putLong(u.getMostSignificantBits()).putLong(u.getLeastSignificantBits());
+  }
+
+  private void putString(String s) throws IOException {
+    byte[] b = (s == null ? "" : s).getBytes(StandardCharsets.UTF_8);
+    int n = Math.min(b.length, 0xFFFF);
+    ensure(2 + n);
+    buf.putShort((short) n).put(b, 0, n);
+  }
+
+  private void ensure(int bytes) throws IOException {
+    if (buf.remaining() < bytes) drain();
+  }
+
+  private void drain() throws IOException {
+    buf.flip();
+    while (buf.hasRemaining()) written += channel.write(buf);
+    buf.clear();
+  }
+
+  private void closeQuietly() {
+    if (channel == null) return;
+    try { drain(); } catch (IOException ignored) {}
+    try { channel.close(); } catch (IOException ignored) {}
+    channel = null;
+  }
+}
@@ -0,0 +1,146 @@
+package com.splatage.ghostbuster.trace;
+
+import com.splatage.ghostbuster.core.GhostCandidate;
+import com.splatage.ghostbuster.core.ScanDecider;
+import com.splatage.ghostbuster.core.ScanDecisions;
+
+import java.lang.reflect.Constructor;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Offline replay of recorded traces through a {@link ScanDecider}: every scan's tracked
+ * and live sets are fed back in order, and the ghosts, stable ghosts and unlink picks are
+ * compared with what the server decided. Repeated iterations time the decider, so an
+ * alternative implementation can be benchmarked and checked against a corpus of traces.
+ * Needs no server classes:
+ *
+ * <pre>
+ * java -cp GhostBuster.jar com.splatage.ghostbuster.trace.TraceReplay \
+ *     [--decider=com.example.MyDecider] [--iterations=20] busiest.gbt ...
+ * </pre>
+ *
+ * A decider needs a public (int maxPerTick, int maxPerMinute) constructor.
+ * Exits 1 if any decision differs.
+ */
+public final class TraceReplay {
+  private static final int MISMATCH_LINES = 10;
+
+  private final Constructor<? extends ScanDecider> decider;
+  private final int iterations;
+  private long mismatches;
+
+  private TraceReplay(Constructor<? extends ScanDecider> decider, int iterations) {
+    this.decider = decider;
+    this.iterations = Math.max(1, iterations);
+  }
+
+  public static void main(String[] args) throws Exception {
+    String deciderClass = ScanDecisions.class.getName();
+    int iterations = 10;
+    List<Path> files = new ArrayList<>();
+    for (String a : args) {
+      if (a.startsWith("--decider=")) deciderClass = a.substring("--decider=".length());
+      else if (a.startsWith("--iterations=")) iterations = Integer.parseInt(a.substring("--iterations=".length()));
+      else files.add(Path.of(a));
+    }
+    if (files.isEmpty()) {
+      System.err.println("usage: TraceReplay [--decider=<class>] [--iterations=N] <trace>...");
+      System.exit(2);
+    }
+
+    Constructor<? extends ScanDecider> ctor = Class.forName(deciderClass)
+        .asSubclass(ScanDecider.class).getConstructor(int.class, int.class);
+    TraceReplay replay = new TraceReplay(ctor, iterations);
+    System.out.println("decider=" + deciderClass + " iterations=" + iterations);
+    for (Path f : files) replay.run(f);
+    System.out.println("mismatches=" + replay.mismatches);
+    System.exit(replay.mismatches == 0 ? 0 : 1);
+  }
+
+  private void run(Path file) throws Exception {
+    List<ScanTrace> scans = new ArrayList<>();
+    boolean truncated;
+    try (TraceReader r = new TraceReader(file)) {
+      for (Object rec; (rec = r.next()) != null; ) if (rec instanceof ScanTrace s) scans.add(s);
+      truncated = r.truncated();
+    }
+    if (scans.isEmpty()) { System.out.println(file + ": no scans"); return; }
+
+    ScanTrace first = scans.get(0);
+    for (ScanTrace s : scans) {
+      if (s.maxUnlinksPerTick() != first.maxUnlinksPerTick() || s.maxUnlinksPerMinute() != first.maxUnlinksPerMinute()) {
+        System.out.println(file + ": unlink limits changed at scan " + s.seq() + "; decisions after it may differ");
+        break;
+      }
+    }
+
+    // Live sets are rebuilt once, outside the timed loop, as the service hands over a HashSet
+    List<Set<UUID>> live = new ArrayList<>(scans.size());
+    long tracked = 0;
+    for (ScanTrace s : scans) {
+      live.add(new HashSet<>(s.live()));
+      for (ScanTrace.World w : s.worlds()) tracked += w.tracked().size();
+    }
+
+    // A world's hysteresis only changes when it is scanned, so its first traced scan holds its starting state
+    Map<String, Map<UUID, Integer>> seed = new HashMap<>();
+    for (ScanTrace s : scans) {
+      for (ScanTrace.World w : s.worlds()) seed.putIfAbsent(w.name(), w.hysteresisBefore());
+    }
+
+    long[] nanos = new long[iterations];
+    for (int it = 0; it < iterations; it++) {
+      ScanDecider d = decider.newInstance(first.maxUnlinksPerTick(), first.maxUnlinksPerMinute());
+      d.restore(seed, first.limiterWindow(), first.limiterUsed());
+
+      boolean check = it == 0;
+      long t0 = System.nanoTime();
+      for (int i = 0; i < scans.size(); i++) replayScan(file, d, scans.get(i), live.get(i), check);
+      nanos[it] = System.nanoTime() - t0;
+    }
+
+    Arrays.sort(nanos);
+    long median = nanos[nanos.length / 2];
+    System.out.printf("%s: scans=%d tracked=%d%s median=%.3fms perScan=%.1fus min=%.3fms%n",
+        file, scans.size(), tracked, truncated ? " (truncated)" : "",
+        median / 1e6, median / 1e3 / scans.size(), nanos[0] / 1e6);
+  }
+
+  private void replayScan(Path file, ScanDecider d, ScanTrace s, Set<UUID> live, boolean check) {
+    Map<String, List<UUID>> stableByWorld = new HashMap<>();
+    for (ScanTrace.World w : s.worlds()) {
+      List<UUID> ghosts = d.ghosts(w.tracked(), live);
+      List<UUID> stable = d.stable(w.name(), ghosts, w.hysteresisCycles());
+      stableByWorld.put(w.name(), stable);
+      if (check) {
+        compareSets(file, s, w.name(), "ghosts", w.ghosts(), ghosts);
+        compareSets(file, s, w.name(), "stable", w.stable(), stable);
+      }
+    }
+    for (ScanTrace.World w : s.worlds()) {
+      List<UUID> stable = stableByWorld.get(w.name());
+      if (stable.isEmpty()) continue;
+      List<GhostCandidate> picked = d.select(w.name(), stable,
+          id -> w.estimatedBytes().getOrDefault(id, 0L), s.decidedAtMillis());
+      if (check) {
+        List<UUID> ids = new ArrayList<>(picked.size());
+        for (GhostCandidate c : picked) ids.add(c.id());
+        if (!ids.equals(w.selected())) mismatch(file, s, w.name(), "selected", w.selected().size(), ids.size());
+      }
+    }
+  }
+
+  private void compareSets(Path file, ScanTrace s, String world, String what, Collection<UUID> recorded, Collection<UUID> replayed) {
+    if (recorded.size() != replayed.size() || !new HashSet<>(recorded).containsAll(replayed)) {
+      mismatch(file, s, world, what, recorded.size(), replayed.size());
+    }
+  }
+
+  private void mismatch(Path file, ScanTrace s, String world, String what, int recorded, int replayed) {
+    if (mismatches++ < MISMATCH_LINES) {
+      System.out.println(file + ": scan " + s.seq() + " world " + world + ": " + what
+          + " differ (recorded " + recorded + ", replayed " + replayed + ")");
+    }
+  }
+}
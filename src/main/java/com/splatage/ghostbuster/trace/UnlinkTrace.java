@@ -0,0 +1,12 @@
+package com.splatage.ghostbuster.trace;
+
+import java.util.UUID;
+
+/**
+ * Result of one verify-and-prune attempt, tagged with the scan sequence current at the time.
+ * A quarantine detach is recorded as UNLINKED; UNKNOWN_OWNER is an alert without pruning
+ * (with quarantine.learn-owners the ghost takes the full unlink and records its outcome).
+ */
+public record UnlinkTrace(long seq, long epochMillis, String world, UUID id, String source, Outcome outcome) {
+  public enum Outcome { NOT_GHOST, DRY_RUN, UNLINKED, FAILED, UNKNOWN_OWNER, PARTIAL } // ordinals are stored: append only
+}
@@ -0,0 +1,215 @@
+package com.splatage.ghostbuster.util;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Structured log sink for region/main-thread hot paths. {@link #emit} copies primitive
+ * fields and already-interned strings into a preallocated slot; once per second a background
+ * writer swaps the filled slot array for a spare one, then, outside the emitters' lock, merges
+ * repeats of the same (event, source, world, owner) into counted summaries, rate-limits the
+ * server log and optionally appends JSONL.
+ */
+public final class EventSink {
+  private static final class Slot {
+    LogEvent event;
+    String source, world, owner;
+    long msb, lsb;
+    boolean hasId;
+    long value;
+    long millis;
+  }
+
+  private record Key(LogEvent event, String source, String world, String owner) {}
+
+  private static final class Summary {
+    int count;
+    long value;
+    long firstMillis;
+    UUID sample;
+  }
+
+  private final Logger log;
+  private final int capacity;
+  private final int maxLinesPerFlush;
+  private final Path jsonlFile;
+  private final ScheduledExecutorService writer =
+      Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "GhostBuster-LogWriter");
+        t.setDaemon(true);
+        return t;
+      });
+
+  // guarded by this: the array emitters fill, its fill level and events lost to a full array
+  private Slot[] ring;
+  private int size;
+  private long dropped;
+
+  private final Object flushLock = new Object();
+  private Slot[] spare; // guarded by flushLock; swapped in for ring on each flush
+  private BufferedWriter jsonOut; // guarded by flushLock
+
+  public EventSink(Logger log, int capacity, int maxLinesPerSecond, Path jsonlFile) {
+    int cap = Integer.highestOneBit(Math.max(64, capacity) - 1) << 1;
+    this.log = log;
+    this.capacity = cap;
+    this.ring = newSlots(cap);
+    this.spare = newSlots(cap);
+    this.maxLinesPerFlush = Math.max(1, maxLinesPerSecond);
+    this.jsonlFile = jsonlFile;
+  }
+
+  public void start() {
+    writer.scheduleWithFixedDelay(this::flushSafely, 1, 1, TimeUnit.SECONDS);
+  }
+
+  public void close() {
+    writer.shutdown();
+    try { writer.awaitTermination(2, TimeUnit.SECONDS); } catch (InterruptedException ignored) {}
+    flushSafely();
+    synchronized (flushLock) {
+      if (jsonOut != null) {
+        try { jsonOut.close(); } catch (IOException ignored) {}
+        jsonOut = null;
+      }
+    }
+  }
+
+  /** Allocation-free on the calling thread; drops (and later reports) events when the ring is full. */
+  public void emit(LogEvent event, String source, String world, UUID id, String owner, long value) {
+    synchronized (this) {
+      if (size == capacity) { dropped++; return; }
+      Slot s = ring[size++];
+      s.event = event;
+      s.source = source;
+      s.world = world;
+      s.owner = owner;
+      s.hasId = id != null;
+      s.msb = id != null ? id.getMostSignificantBits() : 0L;
+      s.lsb = id != null ? id.getLeastSignificantBits() : 0L;
+      s.value = value;
+      s.millis = System.currentTimeMillis();
+    }
+  }
+
+  // Serialises the writer thread with close(); never held by emitters
+  private void flushSafely() {
+    synchronized (flushLock) {
+      try { flush(); } catch (Throwable t) {
+        log.warning("event sink flush failed: " + t.getClass().getSimpleName() + ": " + t.getMessage());
+      }
+    }
+  }
+
+  private void flush() throws IOException {
+    Slot[] drained;
+    int n;
+    long lost;
+    // Emitters wait only for the swap; the filled array is the writer's until the next flush
+    synchronized (this) {
+      drained = ring;
+      n = size;
+      ring = spare;
+      size = 0;
+      lost = dropped;
+      dropped = 0;
+    }
+    spare = drained;
+
+    Map<Key, Summary> batch = new LinkedHashMap<>();
+    for (int i = 0; i < n; i++) {
+      Slot s = drained[i];
+      Summary sum = batch.computeIfAbsent(new Key(s.event, s.source, s.world, s.owner), k -> new Summary());
+      if (sum.count++ == 0) {
+        sum.firstMillis = s.millis;
+        if (s.hasId) sum.sample = new UUID(s.msb, s.lsb);
+      }
+      sum.value += s.value;
+      s.event = null; s.source = s.world = s.owner = null;
+    }
+    if (batch.isEmpty() && lost == 0) return;
+
+    int lines = 0, suppressed = 0;
+    for (var e : batch.entrySet()) {
+      if (lines++ < maxLinesPerFlush) {
+        log.log(e.getKey().event().level(), toLogFmt(e.getKey(), e.getValue()));
+      } else {
+        suppressed += e.getValue().count;
+      }
+    }
+    if (suppressed > 0 || lost > 0) {
+      log.warning(LogFmt.of("event", "log.suppressed").kv("events", suppressed).kv("dropped", lost).toString());
+    }
+
+    if (jsonlFile != null) {
+      if (jsonOut == null) {
+        Files.createDirectories(jsonlFile.toAbsolutePath().getParent());
+        jsonOut = Files.newBufferedWriter(jsonlFile, StandardCharsets.UTF_8,
+            StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+      }
+      for (var e : batch.entrySet()) {
+        jsonOut.write(toJson(e.getKey(), e.getValue()));
+        jsonOut.newLine();
+      }
+      jsonOut.flush();
+    }
+  }
+
+  private static Slot[] newSlots(int n) {
+    Slot[] slots = new Slot[n];
+    for (int i = 0; i < n; i++) slots[i] = new Slot();
+    return slots;
+  }
+
+  private static String toLogFmt(Key k, Summary s) {
+    LogFmt f = LogFmt.of("event", k.event().key()).kv("source", k.source()).kv("world", k.world());
+    if (k.owner() != null) f.kv("owner", k.owner());
+    f.kv("count", s.count).kv(valueKey(k.event()), s.value);
+    if (s.sample != null) f.kv("sample", s.sample);
+    return f.toString();
+  }
+
+  private static String toJson(Key k, Summary s) {
+    StringBuilder sb = new StringBuilder(160).append('{');
+    sb.append("\"ts\":").append(s.firstMillis);
+    sb.append(",\"event\":").append(quote(k.event().key()));
+    sb.append(",\"source\":").append(quote(k.source()));
+    sb.append(",\"world\":").append(quote(k.world()));
+    sb.append(",\"owner\":").append(quote(k.owner()));
+    sb.append(",\"count\":").append(s.count);
+    sb.append(",\"").append(valueKey(k.event())).append("\":").append(s.value);
+    sb.append(",\"sample\":").append(quote(s.sample == null ? null : s.sample.toString()));
+    return sb.append('}').toString();
+  }
+
+  private static String valueKey(LogEvent e) {
+    return switch (e) {
+      case GHOSTS_DETECTED -> "ghosts";
+      case LIVE_MISSED_ADD, LIVE_MISSED_REMOVE -> "entities";
+      default -> "estBytes";
+    };
+  }
+
+  private static String quote(String s) {
+    if (s == null) return "null";
+    StringBuilder sb = new StringBuilder(s.length() + 2).append('"');
+    for (int i = 0; i < s.length(); i++) {
+      char c = s.charAt(i);
+      if (c == '"' || c == '\\') sb.append('\\').append(c);
+      else if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+      else sb.append(c);
+    }
+    return sb.append('"').toString();
+  }
+}
@@ -0,0 +1,43 @@
+package com.splatage.ghostbuster.util;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.List;
+
+/**
+ * Old-generation occupancy right after the most recent collection: the baseline that
+ * creeps upward while ghosts retain memory and flattens once they are unlinked.
+ */
+public final class HeapBaseline {
+  private static final List<MemoryPoolMXBean> OLD_POOLS = ManagementFactory.getMemoryPoolMXBeans().stream()
+      .filter(p -> p.getType() == MemoryType.HEAP && p.isCollectionUsageThresholdSupported())
+      .filter(p -> isOldGen(p.getName()))
+      .toList();
+
+  private static final List<MemoryPoolMXBean> HEAP_POOLS = ManagementFactory.getMemoryPoolMXBeans().stream()
+      .filter(p -> p.getType() == MemoryType.HEAP && p.isCollectionUsageThresholdSupported())
+      .toList();
+
+  private HeapBaseline() {}
+
+  /** Bytes used in old-generation pools after their last GC; whole heap for single-generation collectors; -1 if unknown. */
+  public static long oldGenAfterGc() {
+    List<MemoryPoolMXBean> pools = OLD_POOLS.isEmpty() ? HEAP_POOLS : OLD_POOLS;
+    long used = 0;
+    boolean any = false;
+    for (MemoryPoolMXBean p : pools) {
+      MemoryUsage u = p.getCollectionUsage();
+      if (u == null) continue;
+      used += u.getUsed();
+      any = true;
+    }
+    return any ? used : -1L;
+  }
+
+  // G1 "G1 Old Gen", Parallel "PS Old Gen", Serial "Tenured Gen", generational ZGC "ZGC Old Generation", Shenandoah none
+  private static boolean isOldGen(String name) {
+    return name.contains("Old Gen") || name.contains("Tenured") || name.contains("Old Generation");
+  }
+}
@@ -0,0 +1,25 @@
+package com.splatage.ghostbuster.util;
+
+import java.util.logging.Level;
+
+/** Structured event kinds written through {@link EventSink}; the key is the logfmt/JSON event name. */
+public enum LogEvent {
+  GHOSTS_DETECTED("ghosts.detected", Level.INFO),
+  GHOST_DRY("ghost.dry", Level.WARNING),
+  GHOST_UNLINKED("ghost.unlinked", Level.WARNING),
+  GHOST_UNLINK_PARTIAL("ghost.unlink_partial", Level.WARNING),
+  GHOST_UNLINK_FAILED("ghost.unlink_failed", Level.WARNING),
+  GHOST_QUARANTINED("ghost.quarantined", Level.INFO),
+  GHOST_DETACHED("ghost.detached", Level.WARNING),
+  GHOST_UNKNOWN_OWNER("ghost.unknown_owner", Level.WARNING),
+  LIVE_MISSED_ADD("live.missed_add", Level.INFO),
+  LIVE_MISSED_REMOVE("live.missed_remove", Level.INFO);
+
+  private final String key;
+  private final Level level;
+
+  LogEvent(String key, Level level) { this.key = key; this.level = level; }
+
+  public String key() { return key; }
+  public Level level() { return level; }
+}
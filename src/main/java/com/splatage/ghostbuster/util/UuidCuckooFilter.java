@@ -0,0 +1,113 @@
+package com.splatage.ghostbuster.util;
+
+import java.util.UUID;
+
+/**
+ * Compact cuckoo filter over UUIDs: 16-bit fingerprints, 4 slots per bucket.
+ * {@link #mightContain} never returns a false negative for an added UUID unless
+ * that UUID was later {@link #remove removed}; once an insert cannot find room
+ * the filter saturates and answers {@code true} for everything.
+ * Writes lock the filter; {@link #mightContain} does not, so lookups from many threads
+ * never contend. A lookup racing {@link #add} can miss a fingerprint the insert is moving,
+ * so fill the filter before sharing it; racing {@link #remove} it sees either state.
+ */
+public final class UuidCuckooFilter {
+  private static final int SLOTS = 4;
+  private static final int MAX_KICKS = 500;
+
+  private final short[] table;
+  private final int bucketMask;
+  private int count;
+  private volatile boolean saturated;
+  private long rnd = 0x9E3779B97F4A7C15L;
+
+  public UuidCuckooFilter(int expectedEntries) {
+    int buckets = Integer.highestOneBit(Math.max(16, expectedEntries / SLOTS * 2) - 1) << 1;
+    this.table = new short[buckets * SLOTS];
+    this.bucketMask = buckets - 1;
+  }
+
+  public synchronized boolean add(UUID u) {
+    if (saturated) return false;
+    long h = hash(u);
+    short fp = fingerprint(h);
+    int i1 = (int) h & bucketMask;
+    int i2 = alt(i1, fp);
+    if (insert(i1, fp) || insert(i2, fp)) { count++; return true; }
+
+    int i = (nextRandom() & 1) == 0 ? i1 : i2;
+    for (int n = 0; n < MAX_KICKS; n++) {
+      int slot = i * SLOTS + (nextRandom() & (SLOTS - 1));
+      short evicted = table[slot];
+      table[slot] = fp;
+      fp = evicted;
+      i = alt(i, fp);
+      if (insert(i, fp)) { count++; return true; }
+    }
+    // The last evicted fingerprint has nowhere to go: answer "maybe" from now on
+    saturated = true;
+    return false;
+  }
+
+  public boolean mightContain(UUID u) {
+    if (saturated) return true;
+    long h = hash(u);
+    short fp = fingerprint(h);
+    int i1 = (int) h & bucketMask;
+    return find(i1, fp) >= 0 || find(alt(i1, fp), fp) >= 0;
+  }
+
+  public synchronized boolean remove(UUID u) {
+    if (saturated) return false;
+    long h = hash(u);
+    short fp = fingerprint(h);
+    int i1 = (int) h & bucketMask;
+    int slot = find(i1, fp);
+    if (slot < 0) slot = find(alt(i1, fp), fp);
+    if (slot < 0) return false;
+    table[slot] = 0;
+    count--;
+    return true;
+  }
+
+  public synchronized int size() { return count; }
+  public synchronized boolean saturated() { return saturated; }
+
+  private boolean insert(int bucket, short fp) {
+    int base = bucket * SLOTS;
+    for (int s = 0; s < SLOTS; s++) {
+      if (table[base + s] == 0) { table[base + s] = fp; return true; }
+    }
+    return false;
+  }
+
+  private int find(int bucket, short fp) {
+    int base = bucket * SLOTS;
+    for (int s = 0; s < SLOTS; s++) if (table[base + s] == fp) return base + s;
+    return -1;
+  }
+
+  private int alt(int bucket, short fp) {
+    return (bucket ^ (int) mix(fp & 0xFFFFL)) & bucketMask;
+  }
+
+  private int nextRandom() {
+    rnd ^= rnd << 13; rnd ^= rnd >>> 7; rnd ^= rnd << 17;
+    return (int) rnd;
+  }
+
+  private static short fingerprint(long h) {
+    short fp = (short) (h >>> 48);
+    return fp == 0 ? 1 : fp; // 0 marks an empty slot
+  }
+
+  private static long hash(UUID u) {
+    return mix(u.getMostSignificantBits() * 31 + u.getLeastSignificantBits());
+  }
+
+  private static long mix(long z) {
+    z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+    z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+    return z ^ (z >>> 33);
+  }
+}
@@ -0,0 +1,75 @@
+package com.splatage.ghostbuster.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChunkDigestTest {
+  private static final String W = "world";
+
+  @Test
+  void digestIsOrderIndependent() {
+    List<UUID> ids = new ArrayList<>();
+    for (int i = 0; i < 50; i++) ids.add(UUID.randomUUID());
+    ChunkDigest.Digest forward = ChunkDigest.Digest.EMPTY, backward = ChunkDigest.Digest.EMPTY;
+    for (UUID u : ids) forward = forward.plus(u);
+    for (int i = ids.size() - 1; i >= 0; i--) backward = backward.plus(ids.get(i));
+    assertEquals(forward, backward);
+    assertEquals(50, forward.count());
+  }
+
+  @Test
+  void differentSetsOfTheSameSizeDiffer() {
+    UUID a = UUID.randomUUID(), b = UUID.randomUUID(), c = UUID.randomUUID();
+    assertNotEquals(ChunkDigest.Digest.EMPTY.plus(a).plus(b), ChunkDigest.Digest.EMPTY.plus(a).plus(c));
+    // A UUID counted twice is not the same as counted once, even though the XOR cancels
+    assertNotEquals(ChunkDigest.Digest.EMPTY, ChunkDigest.Digest.EMPTY.plus(a).plus(a));
+  }
+
+  @Test
+  void matchesTheDigestOfTheChunksEntities() {
+    ChunkDigest d = new ChunkDigest();
+    UUID a = UUID.randomUUID(), b = UUID.randomUUID();
+    d.add(W, 5L, a);
+    d.add(W, 5L, b);
+    d.add(W, 6L, a); // counted in two chunks: an index entry that moved without its uncount
+    assertEquals(ChunkDigest.Digest.EMPTY.plus(b).plus(a), d.get(W, 5L));
+    assertEquals(ChunkDigest.Digest.EMPTY, d.get(W, 7L));
+    assertEquals(ChunkDigest.Digest.EMPTY, d.get("other", 5L));
+  }
+
+  @Test
+  void emptiedChunksAreDropped() {
+    ChunkDigest d = new ChunkDigest();
+    UUID a = UUID.randomUUID(), b = UUID.randomUUID();
+    d.add(W, 1L, a);
+    d.add(W, 2L, b);
+    assertEquals(Set.of(1L, 2L), keys(d.chunkKeys(W)));
+    d.remove(W, 1L, a);
+    assertArrayEquals(new long[] { 2L }, d.chunkKeys(W));
+    assertEquals(1, d.chunkCount());
+    assertEquals(List.of(), d.members(W, 1L));
+  }
+
+  @Test
+  void membersFollowAddsAndRemoves() {
+    ChunkDigest d = new ChunkDigest();
+    UUID a = UUID.randomUUID(), b = UUID.randomUUID();
+    d.add(W, 9L, a);
+    d.add(W, 9L, b);
+    assertEquals(Set.of(a, b), new HashSet<>(d.members(W, 9L)));
+    d.remove(W, 9L, a);
+    assertEquals(List.of(b), d.members(W, 9L));
+    d.remove(W, 9L, b);
+    assertEquals(List.of(), d.members(W, 9L));
+    assertEquals(0, d.chunkCount());
+  }
+
+  private static Set<Long> keys(long[] ks) {
+    Set<Long> out = new HashSet<>();
+    for (long k : ks) out.add(k);
+    return out;
+  }
+}
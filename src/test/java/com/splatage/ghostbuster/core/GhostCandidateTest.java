@@ -0,0 +1,24 @@
+package com.splatage.ghostbuster.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class GhostCandidateTest {
+  @Test
+  void largestFirstThenOldestThenUuid() {
+    UUID a = new UUID(0, 1), b = new UUID(0, 2);
+    GhostCandidate big = new GhostCandidate(b, 5000, 1);
+    GhostCandidate oldSmall = new GhostCandidate(b, 100, 9);
+    GhostCandidate youngSmallA = new GhostCandidate(a, 100, 2);
+    GhostCandidate youngSmallB = new GhostCandidate(b, 100, 2);
+
+    List<GhostCandidate> list = new ArrayList<>(List.of(youngSmallB, oldSmall, youngSmallA, big));
+    list.sort(GhostCandidate.PRIORITY);
+    assertEquals(List.of(big, oldSmall, youngSmallA, youngSmallB), list);
+  }
+}
@@ -0,0 +1,110 @@
+package com.splatage.ghostbuster.core;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HistoryRingTest {
+  private static final Logger LOG = Logger.getLogger("HistoryRingTest");
+
+  @TempDir Path dir;
+
+  private static HistoryRing.Sample sample(long t, String world) {
+    return new HistoryRing.Sample(t, world, (int) t, 2, 3, 4, 5, 6, 7L * t, 8L * t);
+  }
+
+  @Test
+  void roundTripsEveryField() throws IOException {
+    try (HistoryRing ring = HistoryRing.open(dir.resolve("h.ring"), 10, LOG)) {
+      HistoryRing.Sample s = new HistoryRing.Sample(1234L, "world", -1, Integer.MAX_VALUE, 3, 4, 5, -6, Long.MAX_VALUE, 9L);
+      ring.append(s);
+      assertEquals(List.of(s), ring.read(null, 0L));
+    }
+  }
+
+  @Test
+  void wrapsKeepingTheNewestOldestFirst() throws IOException {
+    try (HistoryRing ring = HistoryRing.open(dir.resolve("h.ring"), 5, LOG)) {
+      for (long t = 1; t <= 12; t++) ring.append(sample(t, "w"));
+      assertEquals(12, ring.appended());
+      List<HistoryRing.Sample> got = ring.read(null, 0L);
+      assertEquals(List.of(sample(8, "w"), sample(9, "w"), sample(10, "w"), sample(11, "w"), sample(12, "w")), got);
+    }
+  }
+
+  @Test
+  void exactlyFullRingHasNoGap() throws IOException {
+    try (HistoryRing ring = HistoryRing.open(dir.resolve("h.ring"), 3, LOG)) {
+      for (long t = 1; t <= 3; t++) ring.append(sample(t, "w"));
+      assertEquals(List.of(sample(1, "w"), sample(2, "w"), sample(3, "w")), ring.read(null, 0L));
+      ring.append(sample(4, "w"));
+      assertEquals(List.of(sample(2, "w"), sample(3, "w"), sample(4, "w")), ring.read(null, 0L));
+    }
+  }
+
+  @Test
+  void filtersByWorldAndTime() throws IOException {
+    try (HistoryRing ring = HistoryRing.open(dir.resolve("h.ring"), 10, LOG)) {
+      ring.append(sample(1, "a"));
+      ring.append(sample(2, "b"));
+      ring.append(sample(3, "a"));
+      assertEquals(List.of(sample(1, "a"), sample(3, "a")), ring.read("a", 0L));
+      assertEquals(List.of(sample(2, "b"), sample(3, "a")), ring.read(null, 2L));
+      assertEquals(List.of(), ring.read("c", 0L));
+    }
+  }
+
+  @Test
+  void longWorldNamesAreTruncatedButStillMatch() throws IOException {
+    String name = "a_very_long_world_name_indeed_for_testing";
+    try (HistoryRing ring = HistoryRing.open(dir.resolve("h.ring"), 4, LOG)) {
+      ring.append(sample(1, name));
+      List<HistoryRing.Sample> got = ring.read(name, 0L);
+      assertEquals(1, got.size());
+      assertEquals(name.substring(0, 23), got.get(0).world());
+    }
+  }
+
+  @Test
+  void survivesReopen() throws IOException {
+    Path file = dir.resolve("h.ring");
+    try (HistoryRing ring = HistoryRing.open(file, 4, LOG)) {
+      for (long t = 1; t <= 6; t++) ring.append(sample(t, "w"));
+    }
+    try (HistoryRing ring = HistoryRing.open(file, 4, LOG)) {
+      assertEquals(6, ring.appended());
+      ring.append(sample(7, "w"));
+      assertEquals(List.of(sample(4, "w"), sample(5, "w"), sample(6, "w"), sample(7, "w")), ring.read(null, 0L));
+    }
+  }
+
+  @Test
+  void anotherCapacityMovesTheOldFileAside() throws IOException {
+    Path file = dir.resolve("h.ring");
+    try (HistoryRing ring = HistoryRing.open(file, 4, LOG)) {
+      ring.append(sample(1, "w"));
+    }
+    try (HistoryRing ring = HistoryRing.open(file, 8, LOG)) {
+      assertEquals(0, ring.appended());
+      assertEquals(8, ring.capacity());
+    }
+    assertTrue(Files.exists(dir.resolve("h.ring.old")));
+  }
+
+  @Test
+  void foreignFileIsMovedAside() throws IOException {
+    Path file = dir.resolve("h.ring");
+    Files.write(file, new byte[32 + 4 * 72]); // right size, no magic
+    try (HistoryRing ring = HistoryRing.open(file, 4, LOG)) {
+      assertEquals(0, ring.appended());
+    }
+    assertTrue(Files.exists(dir.resolve("h.ring.old")));
+  }
+}
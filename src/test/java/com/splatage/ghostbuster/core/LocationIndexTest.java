@@ -0,0 +1,73 @@
+package com.splatage.ghostbuster.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocationIndexTest {
+  @Test
+  void putGetRemove() {
+    LocationIndex idx = new LocationIndex();
+    UUID id = UUID.randomUUID();
+    assertNull(idx.get(id));
+    idx.put(id, "world", -3, 7, "ZOMBIE");
+    assertEquals(new LocationIndex.Location("world", -3, 7, "ZOMBIE"), idx.get(id));
+    idx.put(id, "world_nether", Integer.MIN_VALUE, Integer.MAX_VALUE, null); // moved: overwritten in place
+    assertEquals(new LocationIndex.Location("world_nether", Integer.MIN_VALUE, Integer.MAX_VALUE, null), idx.get(id));
+    assertEquals(1, idx.size());
+    idx.remove(id);
+    assertNull(idx.get(id));
+    assertEquals(0, idx.size());
+    idx.remove(id); // absent: no-op
+  }
+
+  @Test
+  void matchesAHashMapThroughGrowthAndDeletes() {
+    LocationIndex idx = new LocationIndex();
+    Map<UUID, LocationIndex.Location> model = new HashMap<>();
+    List<UUID> ids = new ArrayList<>();
+    Random r = new Random(42);
+    String[] worlds = { "a", "b", "c" };
+    for (int step = 0; step < 200_000; step++) {
+      int op = r.nextInt(10);
+      if (op < 6 || ids.isEmpty()) {
+        UUID id = op == 0 && !ids.isEmpty() ? ids.get(r.nextInt(ids.size())) : new UUID(r.nextLong(), r.nextLong());
+        LocationIndex.Location loc = new LocationIndex.Location(worlds[r.nextInt(3)], r.nextInt(200) - 100,
+            r.nextInt(200) - 100, "T" + r.nextInt(5));
+        idx.put(id, loc.world(), loc.chunkX(), loc.chunkZ(), loc.type());
+        if (model.put(id, loc) == null) ids.add(id);
+      } else {
+        int i = r.nextInt(ids.size());
+        UUID id = ids.get(i);
+        ids.set(i, ids.get(ids.size() - 1));
+        ids.remove(ids.size() - 1);
+        idx.remove(id);
+        model.remove(id);
+      }
+    }
+    assertEquals(model.size(), idx.size());
+    model.forEach((id, loc) -> assertEquals(loc, idx.get(id)));
+  }
+
+  @Test
+  void retainIfKeepsExactlyThePassingEntries() {
+    LocationIndex idx = new LocationIndex();
+    List<UUID> ids = new ArrayList<>();
+    for (int i = 0; i < 10_000; i++) {
+      UUID id = new UUID(i, i * 31L);
+      ids.add(id);
+      idx.put(id, "w", i, -i, null);
+    }
+    Set<UUID> keep = new HashSet<>();
+    for (int i = 0; i < ids.size(); i += 3) keep.add(ids.get(i));
+    idx.retainIf(keep::contains);
+    assertEquals(keep.size(), idx.size());
+    for (int i = 0; i < ids.size(); i++) {
+      LocationIndex.Location loc = idx.get(ids.get(i));
+      if (keep.contains(ids.get(i))) assertEquals(new LocationIndex.Location("w", i, -i, null), loc);
+      else assertNull(loc);
+    }
+  }
+}
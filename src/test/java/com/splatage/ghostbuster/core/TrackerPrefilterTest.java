@@ -0,0 +1,86 @@
+package com.splatage.ghostbuster.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrackerPrefilterTest {
+  private static final String W = "world";
+  private final UUID tracked = new UUID(1, 1);
+  private final UUID untracked = new UUID(2, 2);
+
+  private TrackerPrefilter rebuilt() {
+    TrackerPrefilter p = new TrackerPrefilter();
+    p.beginSnapshot(W);
+    p.rebuild(W, Set.of(tracked));
+    return p;
+  }
+
+  @Test
+  void withoutASnapshotEverythingMayBeTracked() {
+    TrackerPrefilter p = new TrackerPrefilter();
+    assertTrue(p.mightBeTracked(W, untracked));
+  }
+
+  @Test
+  void fullSnapshotRulesOutUuidsItDidNotSee() {
+    TrackerPrefilter p = rebuilt();
+    assertTrue(p.mightBeTracked(W, tracked));
+    assertFalse(p.mightBeTracked(W, untracked));
+    assertTrue(p.mightBeTracked("other", untracked)); // per world
+  }
+
+  @Test
+  void entitiesAddedSinceTheSnapshotBeganMayBeTracked() {
+    TrackerPrefilter p = new TrackerPrefilter();
+    p.beginSnapshot(W);
+    UUID duringSnapshot = new UUID(3, 3);
+    p.onAdd(W, duringSnapshot);
+    p.rebuild(W, Set.of(tracked));
+    UUID afterSnapshot = new UUID(4, 4);
+    p.onAdd(W, afterSnapshot);
+
+    assertTrue(p.mightBeTracked(W, duringSnapshot));
+    assertTrue(p.mightBeTracked(W, afterSnapshot));
+    assertFalse(p.mightBeTracked(W, untracked));
+  }
+
+  @Test
+  void addsBeforeTheSnapshotBeganAreLeftToIt() {
+    TrackerPrefilter p = rebuilt();
+    UUID before = new UUID(5, 5);
+    p.onAdd(W, before);
+    p.beginSnapshot(W);
+    p.rebuild(W, Set.of(tracked)); // the snapshot did not see it in any container
+    assertFalse(p.mightBeTracked(W, before));
+  }
+
+  @Test
+  void aPartialSnapshotTurnsTheFilterOff() {
+    TrackerPrefilter p = rebuilt();
+    p.beginSnapshot(W);
+    p.invalidate(W);
+    assertTrue(p.mightBeTracked(W, untracked));
+  }
+
+  @Test
+  void rebuildWithoutBeginProvesNothing() {
+    TrackerPrefilter p = rebuilt();
+    p.rebuild(W, Set.of(tracked));
+    assertTrue(p.mightBeTracked(W, untracked));
+  }
+
+  @Test
+  void confirmedAbsentDropsTheUuid() {
+    TrackerPrefilter p = rebuilt();
+    UUID added = new UUID(6, 6);
+    p.onAdd(W, added);
+    p.confirmedAbsent(W, tracked);
+    p.confirmedAbsent(W, added);
+    assertFalse(p.mightBeTracked(W, tracked));
+    assertFalse(p.mightBeTracked(W, added));
+  }
+}
@@ -0,0 +1,52 @@
+package com.splatage.ghostbuster.reflect;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RetainedSizeEstimatorTest {
+  @Test
+  void arraySizesIncludeHeaderAndAlignment() {
+    assertEquals(16, RetainedSizeEstimator.shallowSize(new byte[0]));
+    assertEquals(24, RetainedSizeEstimator.shallowSize(new byte[1]));
+    assertEquals(96, RetainedSizeEstimator.shallowSize(new long[10]));
+    assertEquals(56, RetainedSizeEstimator.shallowSize(new Object[10]));
+  }
+
+  @Test
+  void nullRootIsFree() {
+    assertEquals(0L, new RetainedSizeEstimator(100).estimate(null));
+  }
+
+  @Test
+  void sharedObjectsAreCountedOnce() {
+    String s = new String("shared-value");
+    Object[] twice = { s, s };
+    long expected = RetainedSizeEstimator.shallowSize(twice) + RetainedSizeEstimator.shallowSize(s);
+    assertEquals(expected, new RetainedSizeEstimator(100).estimate(twice));
+  }
+
+  @Test
+  void nodeCapBoundsTheWalk() {
+    List<String> wide = new ArrayList<>();
+    for (int i = 0; i < 10_000; i++) wide.add("entry-" + i);
+    long rootOnly = RetainedSizeEstimator.shallowSize(wide) + 10_000L * 4;
+    assertEquals(rootOnly, new RetainedSizeEstimator(1).estimate(wide));
+    long small = new RetainedSizeEstimator(10).estimate(wide);
+    long large = new RetainedSizeEstimator(1000).estimate(wide);
+    assertTrue(rootOnly < small && small < large, rootOnly + " < " + small + " < " + large);
+  }
+
+  @Test
+  void mapsChargeAnEntryOverheadPerEntry() {
+    Map<Integer, Integer> m = new HashMap<>();
+    for (int i = 0; i < 100; i++) m.put(1000 + i, i);
+    long rootOnly = new RetainedSizeEstimator(1).estimate(m);
+    assertEquals(RetainedSizeEstimator.shallowSize(m) + 100L * 32, rootOnly);
+  }
+}
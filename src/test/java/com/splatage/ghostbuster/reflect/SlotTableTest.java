@@ -0,0 +1,103 @@
+package com.splatage.ghostbuster.reflect;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.AbstractMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlotTableTest {
+  // Shaped like fastutil's open hash maps: the last slot holds the null (0) key
+  private static class IntOpenMap extends AbstractMap<Integer, Object> {
+    int[] key;
+    Object[] value;
+    boolean containsNullKey;
+
+    IntOpenMap(int slots) {
+      key = new int[slots + 1];
+      value = new Object[slots + 1];
+    }
+
+    @Override public Set<Entry<Integer, Object>> entrySet() { return Set.of(); }
+  }
+
+  private static final class SubclassedMap extends IntOpenMap {
+    SubclassedMap() { super(4); }
+  }
+
+  private static final class ObjectOpenMap extends AbstractMap<Object, Object> {
+    Object[] key = new Object[4];
+    Object[] value = new Object[4];
+
+    @Override public Set<Entry<Object, Object>> entrySet() { return Set.of(); }
+  }
+
+  private static final class MismatchedMap extends AbstractMap<Object, Object> {
+    Object[] key = new Object[4];
+    Object[] value = new Object[8];
+
+    @Override public Set<Entry<Object, Object>> entrySet() { return Set.of(); }
+  }
+
+  @Test
+  void readsPrimitiveKeysAndTheNullSlot() {
+    IntOpenMap m = new IntOpenMap(4);
+    m.key[1] = 42;
+    m.value[1] = "a";
+    m.value[4] = "zero";
+    SlotTable t = SlotTable.of(m);
+    assertNotNull(t);
+    assertEquals(5, t.slots());
+    assertFalse(t.used(0));
+    assertTrue(t.used(1));
+    assertEquals(42, t.key(1));
+    assertEquals("a", t.value(1));
+    assertFalse(t.used(4), "null key slot is unused until containsNullKey is set");
+
+    m.containsNullKey = true;
+    assertTrue(SlotTable.of(m).used(4));
+  }
+
+  @Test
+  void findsFieldsDeclaredOnASuperclass() {
+    SubclassedMap m = new SubclassedMap();
+    m.key[2] = 7;
+    SlotTable t = SlotTable.of(m);
+    assertNotNull(t);
+    assertTrue(t.used(2));
+  }
+
+  @Test
+  void objectKeysUseNullForEmptyAndHaveNoNullSlot() {
+    ObjectOpenMap m = new ObjectOpenMap();
+    m.key[3] = "k";
+    m.value[3] = "v";
+    SlotTable t = SlotTable.of(m);
+    assertNotNull(t);
+    assertFalse(t.used(0));
+    assertTrue(t.used(3), "without containsNullKey the last slot is an ordinary slot");
+    assertEquals("k", t.key(3));
+    assertEquals("v", t.value(3));
+  }
+
+  @Test
+  void keepsTheArraysItWasBuiltWith() {
+    IntOpenMap m = new IntOpenMap(4);
+    m.key[0] = 1;
+    SlotTable t = SlotTable.of(m);
+    m.key = new int[17]; // a rehash swaps in new arrays
+    m.value = new Object[17];
+    assertEquals(5, t.slots());
+    assertTrue(t.used(0));
+  }
+
+  @Test
+  void mapsWithoutSlotArraysGetNull() {
+    assertNull(SlotTable.of(new HashMap<>(Map.of("a", 1))));
+    assertNull(SlotTable.of(Map.of()));
+    assertNull(SlotTable.of(new MismatchedMap()));
+  }
+}
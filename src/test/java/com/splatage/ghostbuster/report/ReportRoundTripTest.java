@@ -0,0 +1,91 @@
+package com.splatage.ghostbuster.report;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReportRoundTripTest {
+  @TempDir Path dir;
+
+  private static FleetReport report(String server) {
+    Map<String, Long> types = new LinkedHashMap<>();
+    types.put("minecraft:zombie", 3L);
+    types.put("minecraft:item", 9L);
+    String owner = "net.example.Tracker#entities";
+    return new FleetReport(server, "1.2.0", "1.21.4-Folia", 1000L, 2000L,
+        List.of(new FleetReport.World("world", 12, 5_000_000L, 900_000L, 4321, 7L, 2L, 1L),
+            new FleetReport.World("world_nether", 3, 10L, 5L, 0, 0L, 0L, 0L)),
+        List.of(new FleetReport.Owner(FleetReport.fingerprint(owner), owner, 40L, 12, 1L << 33, 5L, 6L, 1L, types),
+            new FleetReport.Owner(FleetReport.fingerprint("x#y"), "x#y", 1L, 1, 0L, 0L, 0L, 0L, Map.of())));
+  }
+
+  @Test
+  void roundTripsAReport() throws IOException {
+    FleetReport r = report("lobby-1");
+    Path file = ReportWriter.write(r, dir);
+    assertTrue(ReportReader.isReport(file));
+    assertFalse(Files.exists(dir.resolve(file.getFileName() + ".tmp")));
+    try (ReportReader in = new ReportReader(file)) {
+      assertEquals(r, in.readAll());
+    }
+  }
+
+  @Test
+  void streamsOwnersAndEndsWithNull() throws IOException {
+    FleetReport r = report("lobby-1");
+    try (ReportReader in = new ReportReader(ReportWriter.write(r, dir))) {
+      assertEquals(r.worlds(), in.worlds());
+      assertEquals(r.owners().get(0), in.nextOwner());
+      assertEquals(r.owners().get(1), in.nextOwner());
+      assertNull(in.nextOwner());
+      assertNull(in.nextOwner());
+    }
+  }
+
+  @Test
+  void unsafeServerNamesStillMakeAFileName() throws IOException {
+    Path file = ReportWriter.write(report("a/b c"), dir);
+    assertEquals("a_b_c-2000.gbr", file.getFileName().toString());
+    assertEquals(dir, file.getParent());
+  }
+
+  @Test
+  void rejectsAnotherVersion() throws IOException {
+    Path file = dir.resolve("future.gbr");
+    try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(file))) {
+      out.writeInt(ReportFormat.MAGIC);
+      out.writeShort(ReportFormat.VERSION + 1);
+      out.writeUTF("s");
+    }
+    IOException e = assertThrows(IOException.class, () -> new ReportReader(file));
+    assertTrue(e.getMessage().contains("unsupported report version"), e.getMessage());
+  }
+
+  @Test
+  void rejectsForeignFiles() throws IOException {
+    Path file = dir.resolve("junk.gbr");
+    Files.writeString(file, "definitely not a report");
+    IOException e = assertThrows(IOException.class, () -> new ReportReader(file));
+    assertTrue(e.getMessage().contains("not a GhostBuster report"), e.getMessage());
+  }
+
+  @Test
+  void truncatedReportFailsInsteadOfReturningPartialData() throws IOException {
+    Path file = ReportWriter.write(report("lobby-1"), dir);
+    byte[] all = Files.readAllBytes(file);
+    Files.write(file, Arrays.copyOf(all, all.length - 5));
+    try (ReportReader in = new ReportReader(file)) {
+      assertThrows(IOException.class, in::readAll);
+    }
+  }
+}
@@ -0,0 +1,160 @@
+package com.splatage.ghostbuster.trace;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TraceRoundTripTest {
+  private static final Logger LOG = Logger.getLogger("TraceRoundTripTest");
+  private static final UUID A = new UUID(1, 2), B = new UUID(3, 4), C = new UUID(-5, 6);
+
+  @TempDir Path dir;
+
+  private static ScanTrace scan(long seq) {
+    ScanTrace.World w = new ScanTrace.World("world", 3, List.of(A, B, C), Map.of(B, 2, C, 1),
+        List.of(B, C), List.of(B), Map.of(B, 4096L), List.of(B));
+    ScanTrace.World empty = new ScanTrace.World("the_end", 5, List.of(), Map.of(), List.of(), List.of(), Map.of(), List.of());
+    return new ScanTrace(seq, 1000L + seq, 1001L + seq, 4, 60, 77L, 2, List.of(A), List.of(w, empty));
+  }
+
+  private List<Object> readAll(Path file) throws IOException {
+    try (TraceReader in = new TraceReader(file)) {
+      List<Object> out = in.readAll();
+      assertFalse(in.truncated());
+      return out;
+    }
+  }
+
+  @Test
+  void roundTripsScansAndUnlinks() throws IOException {
+    Path file = dir.resolve("t.gbt");
+    TraceRecorder rec = new TraceRecorder(LOG);
+    rec.start(file, 1L << 20);
+    assertTrue(rec.active());
+    rec.recordScan(scan(1));
+    rec.recordUnlink("world", B, "scan", UnlinkTrace.Outcome.PARTIAL);
+    rec.recordScan(scan(2));
+    rec.stop();
+    assertFalse(rec.active());
+
+    List<Object> got = readAll(file);
+    assertEquals(3, got.size());
+    assertEquals(scan(1), got.get(0));
+    UnlinkTrace u = (UnlinkTrace) got.get(1);
+    assertEquals(1L, u.seq());
+    assertEquals("world", u.world());
+    assertEquals(B, u.id());
+    assertEquals("scan", u.source());
+    assertEquals(UnlinkTrace.Outcome.PARTIAL, u.outcome());
+    assertEquals(scan(2), got.get(2));
+  }
+
+  @Test
+  void unlinksAreIgnoredWhenNotRecording() {
+    TraceRecorder rec = new TraceRecorder(LOG);
+    rec.recordUnlink("world", A, "scan", UnlinkTrace.Outcome.UNLINKED);
+    assertFalse(rec.active());
+    assertEquals(0, rec.dropped());
+  }
+
+  @Test
+  void canRecordAgainAfterStop() throws IOException {
+    TraceRecorder rec = new TraceRecorder(LOG);
+    rec.start(dir.resolve("a.gbt"), 1L << 20);
+    rec.recordScan(scan(1));
+    rec.stop();
+    rec.start(dir.resolve("b.gbt"), 1L << 20);
+    rec.recordScan(scan(2));
+    rec.stop();
+    assertEquals(List.of(scan(1)), readAll(dir.resolve("a.gbt")));
+    assertEquals(List.of(scan(2)), readAll(dir.resolve("b.gbt")));
+  }
+
+  @Test
+  void stopsAtTheSizeLimitOnARecordBoundary() throws IOException {
+    Path file = dir.resolve("t.gbt");
+    TraceRecorder rec = new TraceRecorder(LOG);
+    rec.start(file, 1024);
+    for (int i = 1; i <= 100; i++) rec.recordScan(scan(i));
+    rec.stop();
+    List<Object> got = readAll(file);
+    assertFalse(got.isEmpty());
+    assertTrue(got.size() < 100, "recorded " + got.size());
+    assertEquals(scan(1), got.get(0));
+  }
+
+  @Test
+  void truncatedFileEndsAtTheLastCompleteRecord() throws IOException {
+    Path file = dir.resolve("t.gbt");
+    TraceRecorder rec = new TraceRecorder(LOG);
+    rec.start(file, 1L << 20);
+    rec.recordScan(scan(1));
+    rec.recordScan(scan(2));
+    rec.stop();
+    byte[] all = Files.readAllBytes(file);
+    Files.write(file, Arrays.copyOf(all, all.length - 7));
+    try (TraceReader in = new TraceReader(file)) {
+      assertEquals(List.of(scan(1)), in.readAll());
+      assertTrue(in.truncated());
+    }
+  }
+
+  @Test
+  void readsVersionOneTraces() throws IOException {
+    Path file = dir.resolve("v1.gbt");
+    try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(file))) {
+      out.writeInt(TraceFormat.MAGIC);
+      out.writeShort(1);
+      out.writeByte(TraceFormat.SCAN);
+      out.writeLong(9L);
+      out.writeLong(100L);
+      out.writeLong(101L);
+      out.writeInt(4); // v1: hysteresis cycles shared by every world
+      out.writeInt(2);
+      out.writeInt(30);
+      out.writeLong(5L);
+      out.writeInt(1);
+      out.writeInt(1); // live
+      out.writeLong(A.getMostSignificantBits());
+      out.writeLong(A.getLeastSignificantBits());
+      out.writeInt(1); // worlds
+      byte[] name = "world".getBytes(StandardCharsets.UTF_8);
+      out.writeShort(name.length);
+      out.write(name);
+      for (int i = 0; i < 6; i++) out.writeInt(0); // tracked .. selected all empty
+    }
+    ScanTrace.World w = new ScanTrace.World("world", 4, List.of(), Map.of(), List.of(), List.of(), Map.of(), List.of());
+    assertEquals(List.of(new ScanTrace(9L, 100L, 101L, 2, 30, 5L, 1, List.of(A), List.of(w))), readAll(file));
+  }
+
+  @Test
+  void rejectsNewerVersions() throws IOException {
+    Path file = dir.resolve("v3.gbt");
+    try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(file))) {
+      out.writeInt(TraceFormat.MAGIC);
+      out.writeShort(TraceFormat.VERSION + 1);
+    }
+    IOException e = assertThrows(IOException.class, () -> new TraceReader(file));
+    assertTrue(e.getMessage().contains("unsupported trace version"), e.getMessage());
+  }
+
+  @Test
+  void rejectsForeignFiles() throws IOException {
+    Path file = dir.resolve("junk.gbt");
+    Files.writeString(file, "not a trace at all");
+    IOException e = assertThrows(IOException.class, () -> new TraceReader(file));
+    assertTrue(e.getMessage().contains("not a GhostBuster trace"), e.getMessage());
+  }
+}
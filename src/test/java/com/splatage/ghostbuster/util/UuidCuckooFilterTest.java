@@ -0,0 +1,73 @@
+package com.splatage.ghostbuster.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UuidCuckooFilterTest {
+  private static List<UUID> uuids(int n, long seed) {
+    Random r = new Random(seed);
+    List<UUID> out = new ArrayList<>(n);
+    for (int i = 0; i < n; i++) out.add(new UUID(r.nextLong(), r.nextLong()));
+    return out;
+  }
+
+  @Test
+  void noFalseNegativesForAddedUuids() {
+    List<UUID> added = uuids(20_000, 1);
+    UuidCuckooFilter f = new UuidCuckooFilter(added.size() * 2);
+    for (UUID u : added) assertTrue(f.add(u));
+    assertFalse(f.saturated());
+    assertEquals(added.size(), f.size());
+    for (UUID u : added) assertTrue(f.mightContain(u), u::toString);
+  }
+
+  @Test
+  void falsePositiveRateIsLow() {
+    UuidCuckooFilter f = new UuidCuckooFilter(20_000);
+    for (UUID u : uuids(10_000, 2)) f.add(u);
+    int hits = 0;
+    for (UUID u : uuids(100_000, 3)) if (f.mightContain(u)) hits++;
+    // 16-bit fingerprints, 8 candidate slots: about 0.01%; allow an order of magnitude
+    assertTrue(hits < 100, "false positives: " + hits);
+  }
+
+  @Test
+  void removedUuidsAreMisses() {
+    List<UUID> added = uuids(1000, 4);
+    UuidCuckooFilter f = new UuidCuckooFilter(2000);
+    for (UUID u : added) f.add(u);
+    for (UUID u : added.subList(0, 500)) assertTrue(f.remove(u));
+    assertEquals(500, f.size());
+    for (UUID u : added.subList(500, 1000)) assertTrue(f.mightContain(u));
+    int still = 0;
+    for (UUID u : added.subList(0, 500)) if (f.mightContain(u)) still++;
+    assertTrue(still < 5, "removed but still reported: " + still);
+  }
+
+  @Test
+  void removingAnAbsentUuidChangesNothing() {
+    UuidCuckooFilter f = new UuidCuckooFilter(100);
+    UUID kept = new UUID(1, 2);
+    f.add(kept);
+    assertFalse(f.remove(new UUID(3, 4)));
+    assertEquals(1, f.size());
+    assertTrue(f.mightContain(kept));
+  }
+
+  @Test
+  void overfullFilterSaturatesToMaybe() {
+    UuidCuckooFilter f = new UuidCuckooFilter(16); // 8 buckets of 4 slots
+    boolean failed = false;
+    for (UUID u : uuids(1000, 5)) if (!f.add(u)) failed = true;
+    assertTrue(failed);
+    assertTrue(f.saturated());
+    for (UUID u : uuids(100, 6)) assertTrue(f.mightContain(u)); // never a false "absent"
+    assertFalse(f.remove(new UUID(7, 8)));
+  }
+}